@@ -0,0 +1,128 @@
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Benchmark of the model construction, the initial propagation, the resolution to the first solution and the export,
+ * on random instances of growing size, for each search strategy.
+ * <p>
+ * The status of the pre-check ({@link OrdoPrecheck}) of each instance is printed on its rows.
+ * Usage : OrdoBench [nbOrders...] ; the tightness of the deadlines, q4 and q6 are read from the system properties
+ * ordo.tightness, ordo.q4 and ordo.q6. Each measure is repeated after warm-up iterations, each iteration working on
+ * a fresh model, and the mean time is reported next to the Choco measures of the resolution.
+ */
+public class OrdoBench {
+
+    static final int WARMUP = 3;
+    static final int ITERATIONS = 5;
+    static final long TIME_LIMIT = 10000; // ms, per resolution
+    static final long SEED = 18081981;
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length == 0 ? new int[]{10, 50, 200, 1000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        OrdoGenerator generator = new OrdoGenerator()
+                .tightness(Double.parseDouble(System.getProperty("ordo.tightness", "0.5")))
+                .q4(Boolean.parseBoolean(System.getProperty("ordo.q4", "true")))
+                .q6(Boolean.parseBoolean(System.getProperty("ordo.q6", "false")));
+
+        OrdoLog.level = OrdoLog.QUIET;
+        System.out.println("orders\tprecheck\tsearch\tbuild(ms)\tpropagate(ms)\tsolve(ms)\texport(ms)\tsolved\tnodes\tfails\tbacktracks");
+        for (int nbO : sizes) {
+            OrdoInstance instance = generator.generate(nbO, SEED + nbO);
+            String precheck = OrdoPrecheck.check(instance, true) == null ? "ok" : "infeasible";
+            for (int search = 1; search <= 3; search++) {
+                Result r = null;
+                for (int it = 0; it < WARMUP + ITERATIONS; it++) {
+                    Result m = measure(instance, search);
+                    if (it == WARMUP) {
+                        r = m;
+                    } else if (it > WARMUP) {
+                        r.add(m);
+                    }
+                }
+                System.out.println(nbO + "\t" + precheck + "\t" + search + "\t" + r.mean(r.build) + "\t" + r.mean(r.propagate) + "\t"
+                        + r.mean(r.solve) + "\t" + r.mean(r.export) + "\t" + r.solved + "/" + r.count + "\t"
+                        + r.nodes / r.count + "\t" + r.fails / r.count + "\t" + r.backtracks / r.count);
+            }
+        }
+    }
+
+    /**
+     * Measures each stage once
+     */
+    static Result measure(OrdoInstance instance, int search) throws IOException {
+        Result r = new Result();
+
+        long t = System.nanoTime();
+        OrdoModel om = new OrdoModel(instance);
+        OrdoPreprocessor.apply(om);
+        r.build = System.nanoTime() - t;
+
+        t = System.nanoTime();
+        try {
+            om.model.getSolver().propagate();
+        } catch (ContradictionException e) {
+            // infeasible at the root node, the resolution below will prove it again
+        }
+        r.propagate = System.nanoTime() - t;
+
+        om = new OrdoModel(instance); // fresh model, the propagation above modified the domains
+        OrdoPreprocessor.apply(om);
+        om.setSearch(search, SEED);
+        Solver solver = om.model.getSolver();
+        solver.limitTime(TIME_LIMIT);
+        t = System.nanoTime();
+        Solution solution = solver.findSolution();
+        r.solve = System.nanoTime() - t;
+        r.nodes = solver.getNodeCount();
+        r.fails = solver.getFailCount();
+        r.backtracks = solver.getBackTrackCount();
+
+        if (solution != null) {
+            r.solved = 1;
+            OrdoSchedule schedule = OrdoSchedule.of(om, solution);
+            t = System.nanoTime();
+            new OrdoCsvExporter().export(schedule, new ByteArrayOutputStream());
+            new OrdoXlsExporter(OrdoXlsExporter.DEFAULT_RESOLUTION).export(schedule, new ByteArrayOutputStream());
+            r.export = System.nanoTime() - t;
+        }
+        return r;
+    }
+
+    /**
+     * Sum of the measures of several iterations
+     */
+    static class Result {
+        long build;
+        long propagate;
+        long solve;
+        long export;
+        long nodes;
+        long fails;
+        long backtracks;
+        int solved;
+        int count = 1;
+
+        void add(Result r) {
+            build += r.build;
+            propagate += r.propagate;
+            solve += r.solve;
+            export += r.export;
+            nodes += r.nodes;
+            fails += r.fails;
+            backtracks += r.backtracks;
+            solved += r.solved;
+            count++;
+        }
+
+        String mean(long nanos) {
+            return String.format("%.3f", nanos / 1e6 / count);
+        }
+    }
+}
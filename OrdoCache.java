@@ -0,0 +1,238 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * On-disk cache of schedules, keyed by a canonical fingerprint of the instances.
+ * <p>
+ * An instance is canonicalized by sorting its orders by product, quantity and deadline, whatever their order in the
+ * order book, and hashed with the durations of the products, the horizon, q4, q6 and the criterion. An exact hit is
+ * returned without solving. Otherwise, the last schedule of an instance with the same products, quantities and
+ * criterion (the deadlines or horizon may differ) can warm start the search if it is still feasible for the new
+ * instance : it is not optimal for the new deadlines, and must not be returned as is.
+ * The size of the cache is bounded, the least recently used schedules are evicted first.
+ */
+public class OrdoCache {
+
+    private static final int MAGIC = 0x4f52444f; // "ORDO"
+    private static final String EXT = ".ordo";
+
+    private final File dir;
+    private final long maxBytes;
+    private long bytes;
+    private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75f, true); // exact key -> size, LRU order
+    private final Map<String, String> near = new HashMap<>(); // near key -> exact key of the last schedule stored
+
+    public OrdoCache(File dir, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("cannot create the cache directory " + dir);
+        }
+        File[] stored = dir.listFiles((d, name) -> name.endsWith(EXT));
+        if (stored != null) {
+            Arrays.sort(stored, Comparator.comparingLong(File::lastModified));
+            for (File f : stored) {
+                String exact = f.getName().substring(0, f.getName().length() - EXT.length());
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+                    if (in.readInt() != MAGIC) {
+                        continue;
+                    }
+                    near.put(in.readUTF(), exact);
+                }
+                files.put(exact, f.length());
+                bytes += f.length();
+            }
+        }
+    }
+
+    /**
+     * @param criterion the criterion the schedule was optimized for, null for any schedule
+     * @return the cached schedule of the instance, null if none
+     */
+    public synchronized OrdoSchedule get(OrdoInstance instance, OrdoObjective criterion) throws IOException {
+        Canon canon = new Canon(instance, criterion);
+        return files.containsKey(canon.exact) ? read(canon.exact, instance, canon.order) : null;
+    }
+
+    /**
+     * @param criterion the criterion the schedule was optimized for, null for any schedule
+     * @return a schedule of a similar instance still feasible for this one, to warm start its search, null if none
+     */
+    public synchronized OrdoSchedule similar(OrdoInstance instance, OrdoObjective criterion) throws IOException {
+        Canon canon = new Canon(instance, criterion);
+        String similar = near.get(canon.near);
+        if (similar != null && files.containsKey(similar)) {
+            OrdoSchedule schedule = read(similar, instance, canon.order);
+            boolean hardDeadlines = criterion == null || criterion.hardDeadlines();
+            if (schedule != null && schedule.feasible(hardDeadlines)) {
+                return schedule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the schedule of an instance, evicting the least recently used schedules beyond the size limit
+     */
+    public synchronized void put(OrdoSchedule schedule, OrdoObjective criterion) throws IOException {
+        Canon canon = new Canon(schedule.instance, criterion);
+        File f = file(canon.exact);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(canon.near);
+            out.writeInt(canon.order.length);
+            for (int k : canon.order) {
+                for (int p = 0; p < OrdoInstance.NB_TO; p++) {
+                    int j = k * OrdoInstance.NB_TO + p;
+                    out.writeInt(schedule.start[j]);
+                    out.writeInt(schedule.end[j]);
+                    out.writeInt(schedule.engine[j]);
+                }
+            }
+        }
+        Long previous = files.put(canon.exact, f.length());
+        bytes += f.length() - (previous == null ? 0 : previous);
+        near.put(canon.near, canon.exact);
+        Iterator<Map.Entry<String, Long>> lru = files.entrySet().iterator();
+        while (bytes > maxBytes && lru.hasNext()) {
+            Map.Entry<String, Long> eldest = lru.next();
+            if (eldest.getKey().equals(canon.exact)) {
+                continue;
+            }
+            lru.remove();
+            bytes -= eldest.getValue();
+            near.values().remove(eldest.getKey());
+            if (!file(eldest.getKey()).delete()) {
+                throw new IOException("cannot evict " + file(eldest.getKey()));
+            }
+        }
+    }
+
+    private File file(String key) {
+        return new File(dir, key + EXT);
+    }
+
+    /**
+     * @param order canonical order of the orders of the instance
+     * @return the schedule stored in the file, mapped on the orders of the instance, null if it does not match
+     */
+    private OrdoSchedule read(String key, OrdoInstance instance, int[] order) throws IOException {
+        File f = file(key);
+        int nbT = instance.nbT();
+        int[] start = new int[nbT];
+        int[] end = new int[nbT];
+        int[] engine = new int[nbT];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            in.readUTF();
+            if (in.readInt() != order.length) {
+                return null;
+            }
+            for (int k : order) {
+                for (int p = 0; p < OrdoInstance.NB_TO; p++) {
+                    int j = k * OrdoInstance.NB_TO + p;
+                    start[j] = in.readInt();
+                    end[j] = in.readInt();
+                    engine[j] = in.readInt();
+                }
+            }
+        }
+        files.get(key); // most recently used
+        if (!f.setLastModified(System.currentTimeMillis())) {
+            throw new IOException("cannot touch " + f);
+        }
+        return new OrdoSchedule(instance, start, end, engine);
+    }
+
+    /**
+     * Canonical order and fingerprints of an instance
+     */
+    private static final class Canon {
+        final int[] order; // orders sorted by product, quantity and deadline
+        final String exact; // fingerprint of the whole instance and criterion
+        final String near; // fingerprint ignoring the deadlines and the horizon
+
+        Canon(OrdoInstance instance, OrdoObjective criterion) {
+            Integer[] sorted = new Integer[instance.nbO()];
+            for (int k = 0; k < sorted.length; k++) {
+                sorted[k] = k;
+            }
+            Arrays.sort(sorted, (a, b) -> {
+                int c = Integer.compare(instance.productType[a], instance.productType[b]);
+                c = c != 0 ? c : Integer.compare(instance.qty[a], instance.qty[b]);
+                return c != 0 ? c : Integer.compare(instance.deadline[a], instance.deadline[b]);
+            });
+            order = new int[sorted.length];
+            for (int k = 0; k < sorted.length; k++) {
+                order[k] = sorted[k];
+            }
+
+            MessageDigest md = sha256();
+            update(md, instance.T.length);
+            for (int[] t : instance.T) {
+                update(md, t[0]);
+                update(md, t[1]);
+            }
+            update(md, instance.q4 ? 1 : 0);
+            update(md, instance.q6 ? 1 : 0);
+            md.update(String.valueOf(criterion).getBytes(StandardCharsets.UTF_8));
+            update(md, order.length);
+            for (int k : order) {
+                update(md, instance.productType[k]);
+                update(md, instance.qty[k]);
+            }
+            MessageDigest structure;
+            try {
+                structure = (MessageDigest) md.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+            near = hex(structure.digest());
+            for (int k : order) {
+                update(md, instance.deadline[k]);
+            }
+            update(md, instance.maxTime);
+            exact = hex(md.digest());
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static void update(MessageDigest md, int v) {
+            md.update((byte) (v >>> 24));
+            md.update((byte) (v >>> 16));
+            md.update((byte) (v >>> 8));
+            md.update((byte) v);
+        }
+
+        private static String hex(byte[] bytes) {
+            StringBuilder sb = new StringBuilder(2 * bytes.length);
+            for (byte b : bytes) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a schedule as CSV, one line per task : task,order,phase,engine,start,end
+ */
+public class OrdoCsvExporter implements OrdoExporter {
+
+    @Override
+    public void export(OrdoSchedule schedule, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write("task,order,phase,engine,start,end\n");
+        for (int j = 0; j < schedule.start.length; j++) {
+            w.write(Integer.toString(j));
+            w.write(',');
+            w.write(Integer.toString(j / OrdoInstance.NB_TO));
+            w.write(',');
+            w.write(Integer.toString(j % OrdoInstance.NB_TO + 1));
+            w.write(',');
+            w.write(Integer.toString(schedule.engine[j]));
+            w.write(',');
+            w.write(Integer.toString(schedule.start[j]));
+            w.write(',');
+            w.write(Integer.toString(schedule.end[j]));
+            w.write('\n');
+        }
+        w.flush();
+    }
+}
@@ -0,0 +1,157 @@
+import org.chocosolver.solver.Solution;
+
+import java.util.Arrays;
+
+/**
+ * Explains an infeasible instance by a minimal conflict : a set of FOs that can't be scheduled together within their
+ * deadlines and the engines constraints, while removing any of them makes the rest schedulable (QuickXplain).
+ * <p>
+ * Each subset of FOs is tested by the pre-check first, then by the greedy schedule, then by a time-limited
+ * resolution. A subset whose resolution hits the time limit is considered consistent : the conflict is then still
+ * infeasible but might not be minimal, see {@link #isProven()}. Past the overall time limit, the remaining subsets are
+ * considered consistent the same way.
+ */
+public class OrdoExplainer {
+
+    private final OrdoInstance instance;
+    private final OrdoObjective criterion;
+    private final boolean hardDeadlines;
+    private long timeLimit = 1000; // ms for each resolution
+    private long totalTimeLimit = Long.MAX_VALUE; // ms for the whole explanation
+    private long deadline;
+    private int nbChecks;
+    private boolean proven = true; // no resolution stopped by the time limit
+
+    public OrdoExplainer(OrdoInstance instance) {
+        this(instance, null);
+    }
+
+    /**
+     * @param criterion the criterion of the resolution, null for the first solution
+     */
+    public OrdoExplainer(OrdoInstance instance, OrdoObjective criterion) {
+        this.instance = instance;
+        this.criterion = criterion;
+        this.hardDeadlines = criterion == null || criterion.hardDeadlines();
+    }
+
+    /**
+     * @param timeLimit time limit in ms of each resolution of a subset
+     */
+    public OrdoExplainer limitTime(long timeLimit) {
+        this.timeLimit = timeLimit;
+        return this;
+    }
+
+    /**
+     * @param totalTimeLimit time limit in ms of the whole explanation
+     */
+    public OrdoExplainer limitTotalTime(long totalTimeLimit) {
+        this.totalTimeLimit = totalTimeLimit;
+        return this;
+    }
+
+    /**
+     * @return the indices of the FOs of a minimal conflict, an empty array if the instance has a solution (or none
+     * was proven absent within the time limit)
+     */
+    public int[] explain() {
+        long start = System.currentTimeMillis();
+        deadline = totalTimeLimit < Long.MAX_VALUE - start ? start + totalTimeLimit : Long.MAX_VALUE;
+        nbChecks = 0;
+        proven = true;
+        int[] all = new int[instance.nbO()];
+        for (int o = 0; o < all.length; o++) {
+            all[o] = o;
+        }
+        int[] conflict = consistent(all) ? new int[0] : quickXplain(new int[0], false, all);
+        Arrays.sort(conflict);
+        if (OrdoLog.info()) {
+            System.out.println("conflict " + Arrays.toString(conflict) + (proven ? "" : " (not proven minimal)")
+                    + " in " + nbChecks + " checks, " + (System.currentTimeMillis() - start) + "ms");
+        }
+        return conflict;
+    }
+
+    /**
+     * @return whether each check of the last explanation was complete, the conflict being then minimal
+     */
+    public boolean isProven() {
+        return proven;
+    }
+
+    /**
+     * @param background FOs kept in the subproblem
+     * @param added      whether FOs were just added to the background
+     * @param candidates FOs among which the conflict is searched
+     */
+    private int[] quickXplain(int[] background, boolean added, int[] candidates) {
+        if (added && !consistent(background)) {
+            return new int[0];
+        }
+        if (candidates.length == 1) {
+            return candidates;
+        }
+        int k = candidates.length / 2;
+        int[] c1 = Arrays.copyOfRange(candidates, 0, k);
+        int[] c2 = Arrays.copyOfRange(candidates, k, candidates.length);
+        int[] d2 = quickXplain(concat(background, c1), c1.length > 0, c2);
+        int[] d1 = quickXplain(concat(background, d2), d2.length > 0, c1);
+        return concat(d1, d2);
+    }
+
+    /**
+     * @return whether the subproblem restricted to the FOs has a solution, or is not proven infeasible
+     */
+    private boolean consistent(int[] orders) {
+        nbChecks++;
+        OrdoInstance sub = restrict(orders);
+        if (OrdoPrecheck.check(sub, hardDeadlines) != null) {
+            return false;
+        }
+        if (OrdoGreedy.schedule(sub).feasible(hardDeadlines)) {
+            return true;
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            proven = false;
+            return true;
+        }
+        // without hard deadlines the criterion only relaxes them, the first solution is enough
+        OrdoModel om = new OrdoModel(sub, hardDeadlines ? null : criterion);
+        OrdoPreprocessor.apply(om);
+        om.setSearch(3, 0);
+        OrdoOptimizer optimizer = new OrdoOptimizer(om).limitTime(Math.min(timeLimit, remaining))
+                .stopWhen(() -> om.model.getSolver().getSolutionCount() > 0);
+        Solution solution = optimizer.solve();
+        if (solution != null) {
+            return true;
+        }
+        if (!optimizer.isOptimal()) {
+            proven = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the instance restricted to the FOs, on the same engines and horizon
+     */
+    OrdoInstance restrict(int[] orders) {
+        int[] productType = new int[orders.length];
+        int[] qty = new int[orders.length];
+        int[] deadline = new int[orders.length];
+        for (int i = 0; i < orders.length; i++) {
+            productType[i] = instance.productType[orders[i]];
+            qty[i] = instance.qty[orders[i]];
+            deadline[i] = instance.deadline[orders[i]];
+        }
+        return new OrdoInstance(instance.T, productType, qty, deadline, instance.maxTime, instance.q4, instance.q6);
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] c = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, c, a.length, b.length);
+        return c;
+    }
+}
@@ -0,0 +1,33 @@
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a schedule to a stream.
+ */
+public interface OrdoExporter {
+
+    void export(OrdoSchedule schedule, OutputStream out) throws IOException;
+
+    default void export(OrdoSchedule schedule, File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            export(schedule, out);
+        }
+    }
+
+    /**
+     * @return the exporter matching the extension of the file name : .csv, .json, otherwise the XLS Gantt view
+     */
+    static OrdoExporter forFile(String name) {
+        String lower = name.toLowerCase();
+        if (lower.endsWith(".csv")) {
+            return new OrdoCsvExporter();
+        }
+        if (lower.endsWith(".json")) {
+            return new OrdoJsonExporter();
+        }
+        return new OrdoXlsExporter(OrdoXlsExporter.DEFAULT_RESOLUTION);
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.Random;
+
+/**
+ * Generates random instances of the scheduling problem.
+ */
+public class OrdoGenerator {
+
+    // durations of the 2 steps of the products of the original problem
+    static final int[][] DEFAULT_T = new int[][]{
+            {10, 30},
+            {30, 70},
+            {20, 30}
+    };
+
+    int[][] T = DEFAULT_T; // durations of the 2 steps of each product
+    int[] mix = {1, 1, 1}; // relative frequency of each product
+    int maxQty = 10; // quantities are drawn in [1, maxQty]
+    double tightness = 0.5; // in ]0, 1], 1 gives the deadlines of a list schedule of the orders, without slack
+    boolean q4 = true;
+    boolean q6 = false;
+
+    public OrdoGenerator catalog(int[][] T) {
+        this.T = T;
+        return this;
+    }
+
+    public OrdoGenerator mix(int... mix) {
+        this.mix = mix;
+        return this;
+    }
+
+    public OrdoGenerator maxQty(int maxQty) {
+        this.maxQty = maxQty;
+        return this;
+    }
+
+    public OrdoGenerator tightness(double tightness) {
+        this.tightness = tightness;
+        return this;
+    }
+
+    public OrdoGenerator q4(boolean q4) {
+        this.q4 = q4;
+        return this;
+    }
+
+    public OrdoGenerator q6(boolean q6) {
+        this.q6 = q6;
+        return this;
+    }
+
+    /**
+     * The deadline of each order is its end in the list schedule of the orders in the generation order, plus a random
+     * slack growing with the load of the phase 1 engines as the tightness decreases : this list schedule meets all
+     * the deadlines, so the instance is feasible.
+     *
+     * @return an instance of nbO orders, its horizon is computed as by {@link OrdoLoader}
+     */
+    public OrdoInstance generate(int nbO, long seed) {
+        Random rnd = new Random(seed);
+        int total = 0;
+        for (int w : mix) {
+            total += w;
+        }
+        int[] productType = new int[nbO];
+        int[] qty = new int[nbO];
+        int[] deadline = new int[nbO];
+        long load = 0; // load of the phase 1 engines
+        for (int i = 0; i < nbO; i++) {
+            int r = rnd.nextInt(total);
+            int p = 0;
+            while (r >= mix[p]) {
+                r -= mix[p++];
+            }
+            productType[i] = p;
+            qty[i] = 1 + rnd.nextInt(maxQty);
+            load += T[p][0] * qty[i];
+        }
+        // increasing deadlines, for the greedy scheduler to take the orders in the generation order
+        for (int i = 0; i < nbO; i++) {
+            deadline[i] = i;
+        }
+        OrdoSchedule list = OrdoGreedy.schedule(new OrdoInstance(T, productType, qty, deadline, Integer.MAX_VALUE / 2, q4, q6));
+        int slack = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 4, load / (q6 ? 2 : 1) * (1 - tightness) / tightness));
+        for (int i = 0; i < nbO; i++) {
+            deadline[i] = list.end[OrdoModel.last(i)] + rnd.nextInt(slack);
+        }
+        return new OrdoInstance(T, productType, qty, deadline, OrdoLoader.horizon(T, productType, qty, deadline), q4, q6);
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.Arrays;
+
+/**
+ * Constructive list scheduler, in O(n log n), seen as a two-stage hybrid flow shop.
+ * <p>
+ * The FOs are sorted by earliest deadline, ties broken by the Johnson rule (FOs with a shorter phase 1 than phase 2
+ * first, by increasing phase 1, then the other ones by decreasing phase 2). In this order, each phase 1 is appended
+ * on the phase 1 engine available first, and each phase 2 on its engine, engines #1 and #2 sharing one timeline
+ * under q4. The schedule is always built, but may miss deadlines : see {@link OrdoSchedule#feasible()}.
+ */
+public class OrdoGreedy {
+
+    private OrdoGreedy() {
+    }
+
+    public static OrdoSchedule schedule(OrdoInstance instance) {
+        int nbO = instance.nbO();
+        int nbTO = OrdoInstance.NB_TO;
+        Integer[] orders = new Integer[nbO];
+        for (int k = 0; k < nbO; k++) {
+            orders[k] = k;
+        }
+        Arrays.sort(orders, (a, b) -> {
+            int c = Integer.compare(instance.deadline[a], instance.deadline[b]);
+            return c != 0 ? c : Long.compare(johnson(instance, a), johnson(instance, b));
+        });
+
+        int nbR = instance.nbR();
+        int[] free = new int[nbR]; // time at which each engine timeline is free
+        int[] timeline = new int[nbR];
+        for (int i = 0; i < nbR; i++) {
+            timeline[i] = instance.timeline(i);
+        }
+        int[] start = new int[instance.nbT()];
+        int[] end = new int[instance.nbT()];
+        int[] engine = new int[instance.nbT()];
+        for (int k : orders) {
+            int ready = 0;
+            for (int p = 0; p < nbTO; p++) {
+                int j = k * nbTO + p;
+                int best = -1;
+                for (int i : instance.engines(j)) { // engine available first
+                    if (best < 0 || free[timeline[i]] < free[timeline[best]]) {
+                        best = i;
+                    }
+                }
+                start[j] = Math.max(ready, free[timeline[best]]);
+                end[j] = start[j] + instance.duration(j);
+                engine[j] = best;
+                free[timeline[best]] = end[j];
+                ready = end[j];
+            }
+        }
+        return new OrdoSchedule(instance, start, end, engine);
+    }
+
+    /**
+     * @return the rank of FO k in the Johnson rule
+     */
+    private static long johnson(OrdoInstance instance, int k) {
+        int p1 = instance.duration(k * OrdoInstance.NB_TO);
+        int p2 = instance.duration(k * OrdoInstance.NB_TO + 1);
+        return p1 <= p2 ? p1 : (1L << 32) - p2;
+    }
+
+    /**
+     * Seeds the search of a model with a greedy schedule : on top of the strategy already configured, each variable
+     * is first instantiated to its value in the schedule, and when it is feasible and the model has a criterion, the
+     * objective is bounded by its value (see {@link OrdoModel#hint(int[], int[])}).
+     */
+    public static void seed(OrdoModel om, OrdoSchedule greedy) {
+        om.hint(greedy.start, greedy.engine);
+        if (om.objective != null && greedy.feasible(om.criterion.hardDeadlines())) {
+            om.model.arithm(om.objective, "<=", om.criterion.evaluate(greedy)).post();
+        }
+    }
+}
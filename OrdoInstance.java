@@ -0,0 +1,109 @@
+/**
+ * Data of a scheduling problem : the products routings, the fabrication orders (FO) and the engines configuration.
+ * <p>
+ * Each FO is composed by 2 tasks : task 2*o is the phase 1 of the order o, task 2*o+1 is its phase 2.
+ * The phase 1 is executed by the engine #0 (or #0 / the extra engine when q6 is set), the phase 2 of a product p
+ * is executed by the engine #p+1.
+ * The orders are stored column-wise, one primitive array per attribute.
+ */
+public class OrdoInstance {
+
+    public static final int NB_TO = 2; // number of tasks for each FO
+    public static final int EXCL_E1 = 1; // engines that can't work simultaneously when q4 is set
+    public static final int EXCL_E2 = 2;
+
+    final int[][] T; // duration of the process of the 2 steps of each product [duration of step 1, duration of step 2]
+    final int[] productType; // type of product for each order
+    final int[] qty; // quantity of product for each order
+    final int[] deadline; // deadline of each order
+    final int maxTime; // scheduling horizon
+    final boolean q4; // engines #1 and #2 can't work simultaneously
+    final boolean q6; // there are 2 engines for process 1
+
+    /**
+     * @param T         durations of the 2 steps of each product
+     * @param orderList orders [productType, qty, deadline]
+     */
+    public OrdoInstance(int[][] T, int[][] orderList, int maxTime, boolean q4, boolean q6) {
+        this.T = T;
+        int nbO = orderList.length;
+        this.productType = new int[nbO];
+        this.qty = new int[nbO];
+        this.deadline = new int[nbO];
+        for (int i = 0; i < nbO; i++) {
+            productType[i] = orderList[i][0];
+            qty[i] = orderList[i][1];
+            deadline[i] = orderList[i][2];
+        }
+        this.maxTime = maxTime;
+        this.q4 = q4;
+        this.q6 = q6;
+    }
+
+    /**
+     * @param productType type of product for each order
+     * @param qty         quantity of product for each order
+     * @param deadline    deadline of each order
+     */
+    public OrdoInstance(int[][] T, int[] productType, int[] qty, int[] deadline, int maxTime, boolean q4, boolean q6) {
+        this.T = T;
+        this.productType = productType;
+        this.qty = qty;
+        this.deadline = deadline;
+        this.maxTime = maxTime;
+        this.q4 = q4;
+        this.q6 = q6;
+    }
+
+    public int nbO() {
+        return productType.length;
+    }
+
+    public int nbT() {
+        return productType.length * NB_TO;
+    }
+
+    /**
+     * @return the number of engines : one for phase 1, one per product for phase 2, plus the extra phase 1 engine (q6)
+     */
+    public int nbR() {
+        return T.length + (q6 ? 2 : 1);
+    }
+
+    /**
+     * @return the duration of task j
+     */
+    public int duration(int j) {
+        int o = j / NB_TO;
+        return T[productType[o]][j % NB_TO] * qty[o];
+    }
+
+    /**
+     * @return the timeline of an engine : engine #2 shares the one of engine #1 under q4, the other engines have
+     * their own
+     */
+    public int timeline(int engine) {
+        return q4 && engine == EXCL_E2 ? EXCL_E1 : engine;
+    }
+
+    /**
+     * @return the engines able to execute task j
+     */
+    public int[] engines(int j) {
+        if (j % NB_TO == 0) { // phase 1
+            return q6 ? new int[]{0, T.length + 1} : new int[]{0};
+        }
+        return new int[]{productType[j / NB_TO] + 1}; // phase 2
+    }
+
+    /**
+     * @return the orders as [productType, qty, deadline] rows
+     */
+    public int[][] orderList() {
+        int[][] orderList = new int[nbO()][];
+        for (int i = 0; i < orderList.length; i++) {
+            orderList[i] = new int[]{productType[i], qty[i], deadline[i]};
+        }
+        return orderList;
+    }
+}
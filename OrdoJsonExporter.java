@@ -0,0 +1,39 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a schedule as JSON : {"makespan": .., "tardiness": .., "tasks": [{"task": .., "order": .., "phase": ..,
+ * "engine": .., "start": .., "end": ..}, ..]}
+ */
+public class OrdoJsonExporter implements OrdoExporter {
+
+    @Override
+    public void export(OrdoSchedule schedule, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write("{\"makespan\":" + schedule.makespan() + ",\"tardiness\":" + schedule.tardiness() + ",\"tasks\":[");
+        for (int j = 0; j < schedule.start.length; j++) {
+            if (j > 0) {
+                w.write(',');
+            }
+            w.write("\n{\"task\":");
+            w.write(Integer.toString(j));
+            w.write(",\"order\":");
+            w.write(Integer.toString(j / OrdoInstance.NB_TO));
+            w.write(",\"phase\":");
+            w.write(Integer.toString(j % OrdoInstance.NB_TO + 1));
+            w.write(",\"engine\":");
+            w.write(Integer.toString(schedule.engine[j]));
+            w.write(",\"start\":");
+            w.write(Integer.toString(schedule.start[j]));
+            w.write(",\"end\":");
+            w.write(Integer.toString(schedule.end[j]));
+            w.write('}');
+        }
+        w.write("\n]}\n");
+        w.flush();
+    }
+}
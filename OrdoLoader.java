@@ -0,0 +1,451 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Loads product catalogs and order books from CSV or JSON files, in one streaming pass.
+ * <p>
+ * The format is detected from the first character : '[' or '{' for JSON, CSV otherwise.
+ * <ul>
+ * <li>catalog rows are [product, step1, step2] : the durations of the 2 steps of a unit of the product</li>
+ * <li>order rows are [productType, qty, deadline]</li>
+ * </ul>
+ * A CSV row is a line of numbers separated by ',', ';' or tabs, an optional header line names the columns, the
+ * unknown ones being skipped.
+ * A JSON row is any array or object holding the numbers of the row, e.g. [0, 5, 700] or
+ * {"productType": 0, "qty": 5, "deadline": 700}, whatever the wrapping arrays/objects around the rows.
+ * Numbers may have decimals, truncated, and an exponent. A row missing a column, or with too many values, is an
+ * error (IllegalArgumentException), no row is dropped, and so are a catalog missing a product or giving one twice,
+ * a non positive duration or quantity, and a catalog of less than 2 products under q4.
+ * The values are stored straight into primitive column arrays, no object is built per row.
+ */
+public class OrdoLoader {
+
+    static final String[][] CATALOG_COLUMNS = {
+            {"product", "producttype", "type"},
+            {"step1", "phase1", "d1"},
+            {"step2", "phase2", "d2"}
+    };
+    static final String[][] ORDER_COLUMNS = {
+            {"producttype", "product", "type"},
+            {"qty", "quantity"},
+            {"deadline", "due"}
+    };
+
+    private OrdoLoader() {
+    }
+
+    /**
+     * Loads an instance, its horizon maxTime is computed from the data
+     */
+    public static OrdoInstance read(Path catalog, Path orders, boolean q4, boolean q6) throws IOException {
+        int[][] T;
+        try (Reader in = Files.newBufferedReader(catalog, StandardCharsets.UTF_8)) {
+            T = readCatalog(in);
+        }
+        try (Reader in = Files.newBufferedReader(orders, StandardCharsets.UTF_8)) {
+            return readOrders(T, in, q4, q6);
+        }
+    }
+
+    /**
+     * @return the durations of the 2 steps of each product, indexed by product
+     */
+    public static int[][] readCatalog(Reader in) throws IOException {
+        int[][] cols = readColumns(in, CATALOG_COLUMNS);
+        int nbP = 0;
+        for (int p : cols[0]) {
+            if (p < 0) {
+                throw new IllegalArgumentException("negative product " + p + " in catalog");
+            }
+            nbP = Math.max(nbP, p + 1);
+        }
+        if (cols[0].length != nbP) { // nbP rows, of distinct products, cover 0..nbP-1
+            boolean[] seen = new boolean[nbP];
+            for (int p : cols[0]) {
+                if (seen[p]) {
+                    throw new IllegalArgumentException("product " + p + " given twice in catalog");
+                }
+                seen[p] = true;
+            }
+            for (int p = 0; p < nbP; p++) {
+                if (!seen[p]) {
+                    throw new IllegalArgumentException("product " + p + " missing in catalog");
+                }
+            }
+        }
+        int[][] T = new int[nbP][2];
+        for (int i = 0; i < cols[0].length; i++) {
+            if (cols[1][i] <= 0 || cols[2][i] <= 0) {
+                throw new IllegalArgumentException("product " + cols[0][i] + " :: non positive duration");
+            }
+            T[cols[0][i]][0] = cols[1][i];
+            T[cols[0][i]][1] = cols[2][i];
+        }
+        return T;
+    }
+
+    /**
+     * @param T durations of the 2 steps of each product
+     * @return the instance of the order book, its horizon maxTime is computed from the data
+     */
+    public static OrdoInstance readOrders(int[][] T, Reader in, boolean q4, boolean q6) throws IOException {
+        if (q4 && T.length < OrdoInstance.EXCL_E2) { // the phase 2 engines of the products 0 and 1
+            throw new IllegalArgumentException("q4 :: the catalog needs " + OrdoInstance.EXCL_E2 + " products at least");
+        }
+        int[][] cols = readColumns(in, ORDER_COLUMNS);
+        int[] productType = cols[0];
+        int[] qty = cols[1];
+        int[] deadline = cols[2];
+        for (int i = 0; i < productType.length; i++) {
+            if (productType[i] < 0 || productType[i] >= T.length) {
+                throw new IllegalArgumentException("order " + i + " :: unknown product " + productType[i]);
+            }
+            if (qty[i] <= 0) {
+                throw new IllegalArgumentException("order " + i + " :: non positive qty " + qty[i]);
+            }
+        }
+        return new OrdoInstance(T, productType, qty, deadline, horizon(T, productType, qty, deadline), q4, q6);
+    }
+
+    /**
+     * @return the latest deadline, or the end of a schedule executing all the tasks one after the other if later
+     */
+    static int horizon(int[][] T, int[] productType, int[] qty, int[] deadline) {
+        long serial = 0;
+        int maxTime = 0;
+        for (int i = 0; i < productType.length; i++) {
+            serial += (long) (T[productType[i]][0] + T[productType[i]][1]) * qty[i];
+            maxTime = Math.max(maxTime, deadline[i]);
+        }
+        return (int) Math.min(Integer.MAX_VALUE / 2, Math.max(maxTime, serial));
+    }
+
+    // tokens of the scanner, other tokens are the structural characters themselves
+    private static final int EOF = -1;
+    private static final int NUMBER = -2;
+    private static final int WORD = -3;
+
+    /**
+     * Reads the rows of a CSV or JSON input
+     *
+     * @param names accepted names (lower case) of each column
+     * @return the values of each column
+     * @throws IllegalArgumentException on a row missing a column, or a CSV header missing a column
+     */
+    static int[][] readColumns(Reader reader, String[][] names) throws IOException {
+        Scanner sc = new Scanner(reader);
+        Columns cols = new Columns(names);
+        int t = sc.next();
+        if (t == '[' || t == '{') {
+            readJson(sc, t, cols);
+        } else {
+            readCsv(sc, t, cols);
+        }
+        return cols.trim();
+    }
+
+    /**
+     * JSON rows : each array or object holding values of the columns is a row, whatever the arrays or objects around
+     * it. In an object, the values of unknown keys are skipped, and so are the numbers of an array given as the value
+     * of a key, e.g. "tags": [1, 2].
+     */
+    private static void readJson(Scanner sc, int t, Columns cols) throws IOException {
+        int nbCols = cols.names.length;
+        int depth = 0;
+        boolean[] object = new boolean[16]; // object[i] : the container at depth i is an object
+        boolean[] positional = new boolean[16]; // positional[i] : the container at depth i is an array of a row
+        int[] fields = new int[16]; // fields[i] : number of values of the row read in the container at depth i
+        int key = -1; // column of the last key of the current object, -2 for an unknown key
+        int prev = EOF;
+        for (; t != EOF; prev = t, t = sc.next()) {
+            switch (t) {
+                case '[':
+                case '{':
+                    if (++depth == object.length) {
+                        object = Arrays.copyOf(object, 2 * depth);
+                        positional = Arrays.copyOf(positional, 2 * depth);
+                        fields = Arrays.copyOf(fields, 2 * depth);
+                    }
+                    positional[depth] = t == '[' && !object[depth - 1];
+                    object[depth] = t == '{';
+                    fields[depth] = 0;
+                    key = -1;
+                    break;
+                case ']':
+                case '}':
+                    if (depth > 0 && fields[depth] > 0) {
+                        cols.add(fields[depth], "row " + (cols.nbRows + 1));
+                    }
+                    depth--;
+                    key = -1;
+                    break;
+                case WORD:
+                    key = object[depth] && prev != ':' ? column(cols.names, sc.word) : -1; // a key, else a string value
+                    break;
+                case NUMBER:
+                    int col = object[depth] ? key : positional[depth] ? fields[depth] : -2;
+                    if (col >= nbCols) {
+                        throw new IllegalArgumentException("row " + (cols.nbRows + 1) + " :: more than " + nbCols + " values");
+                    }
+                    if (col >= 0) {
+                        cols.set(col, sc.number);
+                        fields[depth]++;
+                    }
+                    key = -1;
+                    break;
+                default:
+            }
+        }
+    }
+
+    /**
+     * CSV rows : one row per non empty line. The first line may be a header naming the columns, the values of the
+     * unknown columns are then skipped; without header, each line holds exactly the values of the columns.
+     */
+    private static void readCsv(Scanner sc, int t, Columns cols) throws IOException {
+        int nbCols = cols.names.length;
+        int[] position = null; // column of the i-th value of a line given by the header, -2 for an unknown one
+        int line = 1;
+        int fields = 0; // number of values read in the current line
+        int nbValues = 0; // number of values of the current line, the skipped ones included
+        boolean header = false; // the current line is the header
+        for (; ; t = sc.next()) {
+            if (t == WORD && (header || nbValues == 0 && position == null && cols.nbRows == 0)) {
+                if (nbValues == 0) {
+                    position = new int[8];
+                    header = true;
+                } else if (nbValues == position.length) {
+                    position = Arrays.copyOf(position, 2 * nbValues);
+                }
+                position[nbValues++] = column(cols.names, sc.word);
+            } else if (t == NUMBER || t == WORD) {
+                if (header) {
+                    throw new IllegalArgumentException("header :: " + sc.number + " is not a column name");
+                }
+                if (nbValues >= (position == null ? nbCols : position.length)) {
+                    throw new IllegalArgumentException("line " + line + " :: more values than columns");
+                }
+                int col = position == null ? nbValues : position[nbValues];
+                if (col >= 0) {
+                    if (t == WORD) {
+                        throw new IllegalArgumentException("line " + line + " :: " + sc.word + " is not a number");
+                    }
+                    cols.set(col, sc.number);
+                    fields++;
+                }
+                nbValues++;
+            } else if (t == '\n' || t == EOF) {
+                if (header) {
+                    position = Arrays.copyOf(position, nbValues);
+                    for (int i = 0; i < nbCols; i++) {
+                        if (!contains(position, i)) {
+                            throw new IllegalArgumentException("header :: no " + cols.names[i][0] + " column");
+                        }
+                    }
+                } else if (nbValues > 0) {
+                    cols.add(fields, "line " + line);
+                }
+                fields = 0;
+                nbValues = 0;
+                header = false;
+                line++;
+                if (t == EOF) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean contains(int[] a, int v) {
+        for (int x : a) {
+            if (x == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Columns being read, and the row in progress
+     */
+    private static final class Columns {
+        final String[][] names;
+        int[][] cols;
+        int nbRows;
+        final int[] row;
+        private final boolean[] set; // columns of the row in progress already read
+
+        Columns(String[][] names) {
+            this.names = names;
+            this.cols = new int[names.length][256];
+            this.row = new int[names.length];
+            this.set = new boolean[names.length];
+        }
+
+        void set(int col, int value) {
+            row[col] = value;
+            set[col] = true;
+        }
+
+        /**
+         * Appends the row in progress, made of the given number of values
+         *
+         * @param where position of the row in the input, for the error message
+         */
+        void add(int fields, String where) {
+            for (int i = 0; i < names.length; i++) {
+                if (!set[i]) {
+                    throw new IllegalArgumentException(where + " :: no " + names[i][0]);
+                }
+                set[i] = false;
+            }
+            if (fields > names.length) {
+                throw new IllegalArgumentException(where + " :: a column is given twice");
+            }
+            cols = append(cols, nbRows++, row);
+        }
+
+        int[][] trim() {
+            for (int i = 0; i < cols.length; i++) {
+                cols[i] = Arrays.copyOf(cols[i], nbRows);
+            }
+            return cols;
+        }
+    }
+
+    /**
+     * @return the index of the column named word, -2 if unknown
+     */
+    private static int column(String[][] names, StringBuilder word) {
+        for (int i = 0; i < names.length; i++) {
+            for (String name : names[i]) {
+                if (name.length() == word.length() && name.equalsIgnoreCase(word.toString())) {
+                    return i;
+                }
+            }
+        }
+        return -2;
+    }
+
+    private static int[][] append(int[][] cols, int r, int[] row) {
+        if (r == cols[0].length) {
+            for (int i = 0; i < cols.length; i++) {
+                cols[i] = Arrays.copyOf(cols[i], 2 * r);
+            }
+        }
+        for (int i = 0; i < cols.length; i++) {
+            cols[i][r] = row[i];
+        }
+        return cols;
+    }
+
+    /**
+     * Splits the input into numbers, words (quoted or not) and structural characters
+     */
+    private static final class Scanner {
+        private static final long PRECISION = 100_000_000_000_000_000L; // further digits are dropped
+        private final Reader in;
+        private final char[] buf = new char[1 << 16];
+        private int pos;
+        private int len;
+        int number;
+        final StringBuilder word = new StringBuilder();
+
+        Scanner(Reader in) {
+            this.in = in instanceof BufferedReader ? in : new BufferedReader(in);
+        }
+
+        private int read() throws IOException {
+            if (pos == len) {
+                len = in.read(buf, 0, buf.length);
+                pos = 0;
+                if (len <= 0) {
+                    len = 0;
+                    return EOF;
+                }
+            }
+            return buf[pos++];
+        }
+
+        private void unread() {
+            pos--;
+        }
+
+        int next() throws IOException {
+            int c = read();
+            while (c == ' ' || c == '\r' || c == ',' || c == ';' || c == '\t') {
+                c = read();
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                boolean negative = c == '-';
+                boolean digits = !negative;
+                long mantissa = negative ? 0 : c - '0';
+                int exponent = 0; // power of 10 of the mantissa
+                while ((c = read()) >= '0' && c <= '9') {
+                    digits = true;
+                    if (mantissa < PRECISION) {
+                        mantissa = 10 * mantissa + c - '0';
+                    } else {
+                        exponent++;
+                    }
+                }
+                if (c == '.') { // decimals are truncated
+                    while ((c = read()) >= '0' && c <= '9') {
+                        digits = true;
+                        if (mantissa < PRECISION) {
+                            mantissa = 10 * mantissa + c - '0';
+                            exponent--;
+                        }
+                    }
+                }
+                if (!digits) {
+                    throw new IllegalArgumentException("'-' is not a number");
+                }
+                if (c == 'e' || c == 'E') {
+                    c = read();
+                    boolean negativeExp = c == '-';
+                    if (c == '-' || c == '+') {
+                        c = read();
+                    }
+                    int exp = 0;
+                    for (; c >= '0' && c <= '9'; c = read()) {
+                        exp = Math.min(1000, 10 * exp + c - '0');
+                    }
+                    exponent += negativeExp ? -exp : exp;
+                }
+                if (c != EOF) {
+                    unread();
+                }
+                double value = exponent >= 0 ? mantissa * Math.pow(10, exponent) : mantissa / Math.pow(10, -exponent);
+                if (value > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("number too large :: " + (negative ? "-" : "") + value);
+                }
+                number = (int) (negative ? -value : value);
+                return NUMBER;
+            }
+            if (c == '"') {
+                word.setLength(0);
+                while ((c = read()) != '"' && c != EOF) {
+                    word.append((char) (c == '\\' ? read() : c));
+                }
+                return WORD;
+            }
+            if (Character.isLetter(c) || c == '_') {
+                word.setLength(0);
+                do {
+                    word.append((char) c);
+                } while (Character.isLetterOrDigit(c = read()) || c == '_');
+                if (c != EOF) {
+                    unread();
+                }
+                return WORD;
+            }
+            return c;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+/**
+ * Self-check of {@link OrdoLoader} on small fixtures : CSV headers, JSON wrappers and the rejected inputs.
+ * <p>
+ * Usage : OrdoLoaderCheck ; prints one line per fixture and exits with status 1 if one of them fails.
+ */
+public class OrdoLoaderCheck {
+
+    static final String CATALOG = "product,step1,step2\n0,10,30\n1,30,70\n2,20,30\n";
+
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        int[][] T = OrdoLoader.readCatalog(new StringReader(CATALOG));
+        check("catalog", Arrays.deepToString(T), "[[10, 30], [30, 70], [20, 30]]");
+
+        // CSV
+        check("csv without header", orders(T, "0,5,700\n1;2;2500\n\n2\t7\t2500\n"), "[0, 1, 2] [5, 2, 7] [700, 2500, 2500]");
+        check("csv header by name", orders(T, "Deadline,notes,Qty,productType\n700,x,5,0\n2500,y,2,1\n"),
+                "[0, 1] [5, 2] [700, 2500]");
+        check("csv decimals and exponent", orders(T, "1,2.9,2.5e3\n"), "[1] [2] [2500]");
+
+        // JSON
+        check("json arrays", orders(T, "[[0, 5, 700], [1, 2, 2500]]"), "[0, 1] [5, 2] [700, 2500]");
+        check("json wrapped objects", orders(T,
+                "{\"book\": {\"orders\": [{\"due\": 700, \"tags\": [1, 2], \"product\": 0, \"qty\": 5, \"name\": \"a\"}]}}"),
+                "[0] [5] [700]");
+
+        // rejected inputs
+        fails("csv missing column", T, "0,5\n", "line 1 :: no deadline");
+        fails("csv too many values", T, "0,5,700,1\n", "line 1 :: more values than columns");
+        fails("csv header missing column", T, "product,qty\n0,5\n", "header :: no deadline column");
+        fails("csv word value", T, "0,five,700\n", "line 1 :: five is not a number");
+        fails("bare minus", T, "0,-,700\n", "'-' is not a number");
+        fails("json missing key", T, "[{\"product\": 0, \"qty\": 5}]", "row 1 :: no deadline");
+        fails("json too many values", T, "[[0, 5, 700, 1]]", "row 1 :: more than 3 values");
+        fails("unknown product", T, "3,5,700\n", "order 0 :: unknown product 3");
+        fails("zero qty", T, "0,0,700\n", "order 0 :: non positive qty 0");
+        failsCatalog("catalog gap", "0,10,30\n2,20,30\n", "product 1 missing in catalog");
+        failsCatalog("catalog duplicate", "0,10,30\n1,30,70\n1,20,30\n", "product 1 given twice in catalog");
+        failsCatalog("catalog zero duration", "0,10,0\n", "product 0 :: non positive duration");
+        fails("q4 with 1 product", new int[][]{{10, 30}}, "0,5,700\n", "q4 :: the catalog needs 2 products at least");
+
+        System.out.println(failures == 0 ? "all checks passed" : failures + " check(s) failed");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static String orders(int[][] T, String input) throws IOException {
+        OrdoInstance instance = OrdoLoader.readOrders(T, new StringReader(input), true, false);
+        return Arrays.toString(instance.productType) + " " + Arrays.toString(instance.qty) + " "
+                + Arrays.toString(instance.deadline);
+    }
+
+    private static void fails(String name, int[][] T, String input, String message) {
+        try {
+            check(name, orders(T, input), "IllegalArgumentException: " + message);
+        } catch (IllegalArgumentException | IOException e) {
+            check(name, e.getClass().getSimpleName() + ": " + e.getMessage(), "IllegalArgumentException: " + message);
+        }
+    }
+
+    private static void failsCatalog(String name, String input, String message) {
+        try {
+            check(name, Arrays.deepToString(OrdoLoader.readCatalog(new StringReader(input))),
+                    "IllegalArgumentException: " + message);
+        } catch (IllegalArgumentException | IOException e) {
+            check(name, e.getClass().getSimpleName() + ": " + e.getMessage(), "IllegalArgumentException: " + message);
+        }
+    }
+
+    private static void check(String name, String actual, String expected) {
+        if (actual.equals(expected)) {
+            System.out.println("ok   " + name);
+        } else {
+            failures++;
+            System.out.println("FAIL " + name + " :: " + actual + ", expected " + expected);
+        }
+    }
+}
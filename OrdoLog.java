@@ -0,0 +1,18 @@
+/**
+ * Verbosity of the traces printed on the standard output.
+ */
+public final class OrdoLog {
+
+    public static final int QUIET = 0; // nothing
+    public static final int INFO = 1; // solutions and progress
+    public static final int TRACE = 2; // description of the model while building it
+
+    public static volatile int level = INFO;
+
+    private OrdoLog() {
+    }
+
+    static boolean info() {
+        return level >= INFO;
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Snapshot of the progress of a resolution, and timing breakdown of its stages (ms).
+ */
+public class OrdoMetrics {
+
+    public final long nodes;
+    public final long fails;
+    public final long backtracks;
+    public final long restarts;
+    public final long solutions;
+    public final long depth; // current depth of the search tree
+    public final long maxDepth;
+    public final Integer bestObjective; // null without criterion or solution
+    public final double nodesPerSecond; // since the previous snapshot
+    public final double buildTime;
+    public final double propagationTime; // initial propagation, before the first decision
+    public final double searchTime;
+    public final double exportTime;
+
+    OrdoMetrics(long nodes, long fails, long backtracks, long restarts, long solutions, long depth, long maxDepth,
+                Integer bestObjective, double nodesPerSecond, double buildTime, double propagationTime,
+                double searchTime, double exportTime) {
+        this.nodes = nodes;
+        this.fails = fails;
+        this.backtracks = backtracks;
+        this.restarts = restarts;
+        this.solutions = solutions;
+        this.depth = depth;
+        this.maxDepth = maxDepth;
+        this.bestObjective = bestObjective;
+        this.nodesPerSecond = nodesPerSecond;
+        this.buildTime = buildTime;
+        this.propagationTime = propagationTime;
+        this.searchTime = searchTime;
+        this.exportTime = exportTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("nodes=%d (%.0f/s) fails=%d backtracks=%d restarts=%d depth=%d/%d solutions=%d best=%s"
+                        + " | build=%.1fms propagation=%.1fms search=%.1fms export=%.1fms",
+                nodes, nodesPerSecond, fails, backtracks, restarts, depth, maxDepth, solutions, bestObjective,
+                buildTime, propagationTime, searchTime, exportTime);
+    }
+}
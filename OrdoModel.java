@@ -0,0 +1,468 @@
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainRandom;
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.search.strategy.selectors.variables.DomOverWDeg;
+import org.chocosolver.solver.search.strategy.selectors.variables.FirstFail;
+import org.chocosolver.solver.search.strategy.selectors.variables.InputOrder;
+import org.chocosolver.solver.search.strategy.selectors.variables.Random;
+import org.chocosolver.solver.search.strategy.selectors.variables.VariableSelector;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Task;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Choco model of an {@link OrdoInstance}.
+ * <p>
+ * Each task is declared once, and is only posted on the engines able to execute it :
+ * a task with a single eligible engine is a mandatory task of this engine, a task with several eligible engines
+ * is an optional task of each of them, whose resource consumption is the boolean ex "engine executes the task".
+ * The model size thus grows with the number of eligible (engine, task) pairs, not with nbR * nbT.
+ */
+public class OrdoModel {
+
+    static final int LNS_FAILS = 100; // fails before trying another neighborhood
+
+    final OrdoInstance instance;
+    final Model model;
+    final IntVar[] s; // starts
+    final IntVar[] e; // ends
+    final IntVar[] d; // durations
+    final Task[] tasks;
+    final int[][] engines; // engines[j] : engines able to execute task j
+    final BoolVar[][] ex; // ex[j][k] : true iff the engine engines[j][k] executes task j
+    final BoolVar[] optional; // the ex variables of tasks with several eligible engines
+    final int[][] tasksR; // tasksR[i] : tasks engine i may execute
+    final OrdoObjective criterion; // null when looking for any solution
+    final IntVar objective; // variable to minimize, null when looking for any solution
+    final long buildTime; // ns spent building the model
+    boolean lns; // the search is a Large Neighborhood Search, its end proves nothing
+    private final Map<IntVar, Integer> hints = new HashMap<>(); // hinted value of the variables
+    private int search = 3; // strategy of setSearch(int, long)
+    private long seed;
+
+    public OrdoModel(OrdoInstance instance) {
+        this(instance, null);
+    }
+
+    /**
+     * @param criterion the criterion to minimize, null to look for any solution
+     */
+    public OrdoModel(OrdoInstance instance, OrdoObjective criterion) {
+        long start = System.nanoTime();
+        boolean trace = OrdoLog.level >= OrdoLog.TRACE; // description of the constraints
+        this.instance = instance;
+        this.criterion = criterion;
+        this.model = new Model("Ordo Pharma");
+        int nbO = instance.nbO();
+        int nbTO = OrdoInstance.NB_TO;
+        int nbT = instance.nbT();
+        int nbR = instance.nbR();
+
+        // engines attributes declaration
+        IntVar cr = model.intVar("capacity", nbR, nbR); // total capacity of all the engines/resources
+        IntVar one = model.intVar("unitaryCapa", 1, 1); // unitary capacity of each engine/resource
+
+        // tasks attributes declaration (there are nbT tasks in total), bounded domains as the horizon may be large,
+        // tightened by the heads and tails of the tasks
+        boolean hardDeadlines = criterion == null || criterion.hardDeadlines();
+        s = new IntVar[nbT];
+        e = new IntVar[nbT];
+        d = new IntVar[nbT];
+        for (int j = 0; j < nbT; j++) {
+            int dj = instance.duration(j);
+            int est = OrdoPreprocessor.head(instance, j);
+            int lst = Math.max(est, OrdoPreprocessor.tail(instance, j, hardDeadlines) - dj); // an empty window fails on the deadline
+            s[j] = model.intVar("s[" + j + "]", est, lst, true);
+            e[j] = model.intVar("e[" + j + "]", est + dj, lst + dj, true);
+            d[j] = model.intVar("d", dj, dj);
+        }
+        IntVar[] c = new IntVar[nbT]; // unitary resources consumption of each tasks
+        Arrays.fill(c, one);
+
+        // tasks creation
+        tasks = new Task[nbT];
+        for (int j = 0; j < nbT; j++) {
+            tasks[j] = new Task(s[j], d[j], e[j]); // container modeling a task, ensure : s[i] + d[i] = e[i]
+        }
+        if (trace) {
+            System.out.println("*************************");
+            System.out.println("Considering the following set of tasks:");
+            for (Task t : tasks) {
+                System.out.println(t);
+            }
+            System.out.println("subjected to s[i] + d[i] = e[i]");
+            System.out.println("*************************");
+        }
+
+        // engine execution / for each task, only the eligible engines are considered
+        engines = new int[nbT][];
+        ex = new BoolVar[nbT][];
+        int nbOptional = 0;
+        int[] nbTasksR = new int[nbR]; // number of tasks each engine may execute
+        for (int j = 0; j < nbT; j++) {
+            engines[j] = instance.engines(j);
+            ex[j] = new BoolVar[engines[j].length];
+            for (int k = 0; k < engines[j].length; k++) {
+                if (engines[j].length == 1) {
+                    ex[j][k] = model.boolVar(true); // the engine must execute this task
+                } else {
+                    ex[j][k] = model.boolVar("ex" + engines[j][k] + "," + j);
+                    nbOptional++;
+                }
+                nbTasksR[engines[j][k]]++;
+            }
+            if (engines[j].length > 1) {
+                model.sum(ex[j], "=", 1).post(); // a task is executed by exactly one engine
+            }
+        }
+        optional = new BoolVar[nbOptional];
+        for (int j = 0, pos = 0; j < nbT; j++) {
+            if (engines[j].length > 1) {
+                for (BoolVar b : ex[j]) {
+                    optional[pos++] = b;
+                }
+            }
+        }
+
+        // grouping tasks into the FOs
+        if (trace) {
+            System.out.println("*************************");
+            System.out.println("Considering the following set of fabrication orders:");
+            for (int o = 0; o < nbO; o++) {
+                System.out.print("Fabrication Order " + o + " :: ");
+                for (int j = 0; j < nbTO; j++) {
+                    Task t = tasks[o * nbTO + j];
+                    System.out.print((j >= 1 ? ", " : "") + "Task[" + t.getStart().getName() + ";" + t.getEnd().getName() + "]");
+                }
+                System.out.println();
+            }
+            System.out.println("*************************");
+        }
+
+        // cumulative constraint ensures that, at each point of time, the total resources consumption
+        // of tasks planed does not exceed the total capacity available
+        model.cumulative(tasks, c, cr).post();
+
+        // for each order, task i have to finish before task i+1 starts
+        for (int k = 0; k < nbO; k++) {
+            for (int i = 0; i < nbTO - 1; i++) {
+                model.arithm(e[k * nbTO + i], "<=", s[k * nbTO + i + 1]).post();
+            }
+        }
+        if (trace) {
+            System.out.println("*************************");
+            System.out.println("Tasks inside each FO are ordered");
+            for (int k = 0; k < nbO; k++) {
+                System.out.print("FO " + k + " :: " + s[k * nbTO].getName() + " - " + e[k * nbTO].getName());
+                for (int i = 0; i < nbTO - 1; i++) {
+                    System.out.print(" <= " + s[k * nbTO + i + 1].getName() + " - " + e[k * nbTO + i + 1].getName());
+                }
+                System.out.println();
+            }
+            System.out.println("*************************");
+        }
+
+        // for each order, task must finish before the given deadline
+        if (hardDeadlines) {
+            for (int k = 0; k < nbO; k++) {
+                model.arithm(e[last(k)], "<=", instance.deadline[k]).post();
+            }
+            if (trace) {
+                System.out.println("*************************");
+                System.out.println("FOs must end before deadline");
+                for (int k = 0; k < nbO; k++) {
+                    System.out.println("FO " + k + " :: " + s[last(k)].getName() + " - " + e[last(k)].getName() + " <= " + instance.deadline[k]);
+                }
+                System.out.println("*************************");
+            }
+        }
+
+        // tasks and resources consumption per engine, restricted to the eligible tasks
+        tasksR = new int[nbR][];
+        Task[][] taskR = new Task[nbR][];
+        IntVar[][] ce = new IntVar[nbR][];
+        for (int i = 0; i < nbR; i++) {
+            tasksR[i] = new int[nbTasksR[i]];
+            taskR[i] = new Task[nbTasksR[i]];
+            ce[i] = new IntVar[nbTasksR[i]];
+            nbTasksR[i] = 0;
+        }
+        for (int j = 0; j < nbT; j++) {
+            for (int k = 0; k < engines[j].length; k++) {
+                int i = engines[j][k];
+                tasksR[i][nbTasksR[i]] = j;
+                taskR[i][nbTasksR[i]] = tasks[j];
+                ce[i][nbTasksR[i]++] = ex[j][k]; // 1 if engine i makes task j, 0 otherwise
+            }
+        }
+
+        // one cumulative for each engine ensuring engine capacity
+        if (trace) {
+            System.out.println("*************************");
+            System.out.println("Each engine/resource cannot execute more than one task at a time");
+        }
+        for (int i = 0; i < nbR; i++) {
+            if (taskR[i].length > 1) {
+                model.cumulative(taskR[i], ce[i], one).post();
+            }
+            if (trace) {
+                System.out.println("Engine-" + i + " :: cumulative(" + taskR[i].length + " tasks eligible on this engine)");
+            }
+        }
+
+        if (instance.q4) {
+            // two of the engines cannot work simultaneously (#1 and #2 here)
+            int e1 = OrdoInstance.EXCL_E1;
+            int e2 = OrdoInstance.EXCL_E2;
+            if (trace) {
+                System.out.println("*************************");
+                System.out.println("engine-" + e1 + " and engine-" + e2 + " can't work simultaneaously");
+            }
+            Task[] taskRConcat = ArrayUtils.append(taskR[e1], taskR[e2]);
+            IntVar[] ceConcat = ArrayUtils.append(ce[e1], ce[e2]);
+            if (taskRConcat.length > 1) {
+                model.cumulative(taskRConcat, ceConcat, one).post();
+            }
+        }
+        if (trace) {
+            System.out.println("*************************");
+        }
+
+        if (criterion != null) {
+            objective = criterion.post(this);
+            model.setObjective(Model.MINIMIZE, objective);
+            if (trace) {
+                System.out.println("minimize " + criterion);
+                System.out.println("*************************");
+            }
+        } else {
+            objective = null;
+        }
+        buildTime = System.nanoTime() - start;
+    }
+
+    /**
+     * Configures the search strategy on the starting dates, then on the choice of the engines.
+     * The values hinted by {@link #hint(int[], int[])} are tried first.
+     *
+     * @param search 1: input order, 2: min domain, otherwise: dom/wdeg and random engine choice
+     */
+    public void setSearch(int search, long seed) {
+        this.search = search;
+        this.seed = seed;
+        VariableSelector<IntVar> taskSelector;
+        VariableSelector<IntVar> engineSelector;
+        IntValueSelector engineValue;
+        switch (search) {
+            case 1:
+                // choose the tasks in the input order and instantiate their starting date as soon as possible
+                // and next, instantiate each task to the first engine/resource available
+                taskSelector = new InputOrder<>(model);
+                engineSelector = new InputOrder<>(model);
+                engineValue = new IntDomainMin();
+                break;
+            case 2:
+                // choose first the task with the minimum domain size and instantiate it to the starting date as soon as possible
+                // and next, instantiate each task to the first engine/resource available
+                taskSelector = new FirstFail(model);
+                engineSelector = new InputOrder<>(model);
+                engineValue = new IntDomainMin();
+                break;
+            default:
+                // Finding the most promising task (a bit copmplex - no details)
+                // and next, random choice to instantiate the tasks to the engines/resources
+                taskSelector = new DomOverWDeg<>(s, 0);
+                engineSelector = new Random<>(seed);
+                engineValue = new IntDomainRandom(seed);
+        }
+        DecisionOperator<IntVar> decision = hints.isEmpty() ? DecisionOperatorFactory.makeIntEq() : new Hint(false);
+        if (optional.length > 0) {
+            model.getSolver().setSearch(Search.intVarSearch(taskSelector, hinted(new IntDomainMin()), decision, s),
+                    Search.intVarSearch(engineSelector, hinted(engineValue), decision, optional));
+        } else {
+            model.getSolver().setSearch(Search.intVarSearch(taskSelector, hinted(new IntDomainMin()), decision, s));
+        }
+    }
+
+    /**
+     * Hints a schedule to the search strategy configured by {@link #setSearch(int, long)} : each variable is first
+     * instantiated to its hinted value when still possible, the choice of the variables being unchanged.
+     *
+     * @param startHint  hinted start of each task, -1 if none
+     * @param engineHint hinted engine of each task, -1 if none
+     */
+    public void hint(int[] startHint, int[] engineHint) {
+        putHints(startHint, engineHint);
+        setSearch(search, seed);
+    }
+
+    /**
+     * Configures a search following a previous schedule : the tasks are taken by increasing hinted start, and each
+     * variable is first instantiated to its hinted value when still possible, else to its lower bound.
+     * The starts having bounded domains, a hinted value inside the bounds is reached by a split (see {@link Hint}),
+     * so that its refutation does remove it.
+     *
+     * @param startHint  hinted start of each task, -1 if none
+     * @param engineHint hinted engine of each task, -1 if none
+     */
+    public void setSearch(int[] startHint, int[] engineHint) {
+        putHints(startHint, engineHint);
+        Integer[] order = new Integer[s.length];
+        for (int j = 0; j < s.length; j++) {
+            order[j] = j;
+        }
+        // tasks without hint come last
+        Arrays.sort(order, (a, b) -> Integer.compare(startHint[a] < 0 ? Integer.MAX_VALUE : startHint[a],
+                startHint[b] < 0 ? Integer.MAX_VALUE : startHint[b]));
+        IntVar[] starts = new IntVar[s.length];
+        for (int j = 0; j < s.length; j++) {
+            starts[j] = s[order[j]];
+        }
+        IntValueSelector hinted = hinted(new IntDomainMin());
+        if (optional.length > 0) {
+            model.getSolver().setSearch(Search.intVarSearch(new InputOrder<>(model), hinted, new Hint(false), starts),
+                    Search.intVarSearch(new InputOrder<>(model), hinted, optional));
+        } else {
+            model.getSolver().setSearch(Search.intVarSearch(new InputOrder<>(model), hinted, new Hint(false), starts));
+        }
+    }
+
+    private void putHints(int[] startHint, int[] engineHint) {
+        hints.clear();
+        for (int j = 0; j < s.length; j++) {
+            if (startHint[j] >= 0) {
+                hints.put(s[j], startHint[j]);
+            }
+            if (engineHint[j] >= 0 && engines[j].length > 1) {
+                for (int k = 0; k < engines[j].length; k++) {
+                    hints.put(ex[j][k], engines[j][k] == engineHint[j] ? 1 : 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the selector of the hinted value of a variable when still in its domain, else of the given selector
+     */
+    private IntValueSelector hinted(IntValueSelector otherwise) {
+        if (hints.isEmpty()) {
+            return otherwise;
+        }
+        return var -> {
+            Integer hint = hints.get(var);
+            return hint != null && var.contains(hint) ? hint : otherwise.selectValue(var);
+        };
+    }
+
+    /**
+     * Decision x = v that stays complete on a bounded domain : when v is a bound, x is instantiated to v and the
+     * refutation moves the bound, otherwise the decision is the split x <= v, refuted by x > v, and v is instantiated
+     * at the next decision on x, being then its upper bound.
+     * The refutation is applied on the domain of the decision, restored by the backtrack, so both branches see the
+     * same bounds.
+     */
+    private static final class Hint implements DecisionOperator<IntVar> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean reversed; // branches swapped
+
+        Hint(boolean reversed) {
+            this.reversed = reversed;
+        }
+
+        @Override
+        public boolean apply(IntVar var, int value, ICause cause) throws ContradictionException {
+            return reversed ? refute(var, value, cause) : assign(var, value, cause);
+        }
+
+        @Override
+        public boolean unapply(IntVar var, int value, ICause cause) throws ContradictionException {
+            return reversed ? assign(var, value, cause) : refute(var, value, cause);
+        }
+
+        private static boolean assign(IntVar var, int value, ICause cause) throws ContradictionException {
+            if (value == var.getLB() || value == var.getUB()) {
+                return var.instantiateTo(value, cause);
+            }
+            return var.updateUpperBound(value, cause);
+        }
+
+        private static boolean refute(IntVar var, int value, ICause cause) throws ContradictionException {
+            if (value == var.getUB()) {
+                return var.updateUpperBound(value - 1, cause);
+            }
+            return var.updateLowerBound(value + 1, cause);
+        }
+
+        @Override
+        public DecisionOperator<IntVar> opposite() {
+            return new Hint(!reversed);
+        }
+
+        @Override
+        public String toString() {
+            return reversed ? " !~ " : " ~ ";
+        }
+    }
+
+    /**
+     * Turns the search into a Large Neighborhood Search, restarting on the neighborhoods of {@link OrdoNeighbor}
+     * after a number of fails, to improve the solutions of an optimization problem
+     */
+    public void setLNS(long seed) {
+        model.getSolver().setLNS(new OrdoNeighbor(this, seed), new FailCounter(model, LNS_FAILS));
+        lns = true;
+    }
+
+    /**
+     * Pins task j at the given start on the given engine
+     */
+    public void freeze(int j, int start, int engine) {
+        model.arithm(s[j], "=", start).post();
+        for (int k = 0; k < engines[j].length; k++) {
+            if (engines[j][k] == engine) {
+                model.arithm(ex[j][k], "=", 1).post();
+            }
+        }
+    }
+
+    /**
+     * Task j cannot start before the given time
+     */
+    public void release(int j, int time) {
+        model.arithm(s[j], ">=", time).post();
+    }
+
+    /**
+     * @return the index of the last task of the FO k
+     */
+    static int last(int k) {
+        return k * OrdoInstance.NB_TO + OrdoInstance.NB_TO - 1;
+    }
+
+    /**
+     * @return the engine executing task j in the given solution
+     */
+    public int engine(int j, Solution solution) {
+        for (int k = 0; k < ex[j].length; k++) {
+            if (solution.getIntVal(ex[j][k]) == 1) {
+                return engines[j][k];
+            }
+        }
+        return -1;
+    }
+}
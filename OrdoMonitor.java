@@ -0,0 +1,156 @@
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Instrumentation of the resolution of an {@link OrdoModel} : plugged on its solver, it publishes
+ * {@link OrdoMetrics} snapshots, on demand or periodically from a daemon thread.
+ * Nothing is plugged on the solver unless a monitor is created.
+ * <p>
+ * The resolution and each of its solutions are also recorded as Flight Recorder events (ordo.Search and
+ * ordo.Solution, JDK 8u262 or later), committed only when a recording enables them.
+ */
+public class OrdoMonitor implements IMonitorSolution, IMonitorOpenNode {
+
+    private final OrdoModel om;
+    private final Solver solver;
+    private ScheduledExecutorService timer;
+    private volatile long searchStart; // ns, 0 before the resolution
+    private volatile long propagationEnd; // ns, 0 before the first decision
+    private volatile long searchEnd; // ns, 0 during the resolution
+    private volatile long exportTime; // ns
+    private volatile Integer bestObjective;
+    private long lastNodes;
+    private long lastSnapshot;
+    private final SearchEvent searchEvent = new SearchEvent();
+
+    public OrdoMonitor(OrdoModel om) {
+        this.om = om;
+        this.solver = om.model.getSolver();
+        solver.plugMonitor(this);
+    }
+
+    /**
+     * Calls the listener with a snapshot every period ms, from the start of the resolution until {@link #stop()}
+     */
+    public OrdoMonitor onProgress(long period, Consumer<OrdoMetrics> listener) {
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ordo-monitor");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleAtFixedRate(() -> {
+            if (searchStart != 0) {
+                listener.accept(snapshot());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * To call just before the resolution
+     */
+    public void start() {
+        searchStart = System.nanoTime();
+        lastSnapshot = searchStart;
+        searchEvent.begin();
+    }
+
+    /**
+     * To call after the resolution, stops the periodic callbacks
+     */
+    public void stop() {
+        searchEnd = System.nanoTime();
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        searchEvent.end();
+        if (searchEvent.shouldCommit()) {
+            searchEvent.nodes = solver.getNodeCount();
+            searchEvent.fails = solver.getFailCount();
+            searchEvent.solutions = solver.getSolutionCount();
+            searchEvent.commit();
+        }
+    }
+
+    /**
+     * Records the duration of the export of the solution
+     */
+    public void exported(long nanos) {
+        exportTime = nanos;
+    }
+
+    @Override
+    public void beforeOpenNode() {
+        if (propagationEnd == 0) {
+            propagationEnd = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void onSolution() {
+        if (om.objective != null) {
+            bestObjective = om.objective.getValue();
+        }
+        SolutionEvent event = new SolutionEvent();
+        if (event.shouldCommit()) {
+            event.objective = om.objective == null ? 0 : om.objective.getValue();
+            event.nodes = solver.getNodeCount();
+            event.time = (System.nanoTime() - searchStart) / 1e6;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return the current measures, the counters are read without stopping the search
+     */
+    public synchronized OrdoMetrics snapshot() {
+        long now = System.nanoTime();
+        long nodes = solver.getNodeCount();
+        double nodesPerSecond = now > lastSnapshot ? (nodes - lastNodes) * 1e9 / (now - lastSnapshot) : 0;
+        lastNodes = nodes;
+        lastSnapshot = now;
+        long end = searchEnd != 0 ? searchEnd : now;
+        long propagation = propagationEnd != 0 ? propagationEnd : end;
+        return new OrdoMetrics(nodes, solver.getFailCount(), solver.getBackTrackCount(), solver.getRestartCount(),
+                solver.getSolutionCount(), solver.getCurrentDepth(), solver.getMaxDepth(), bestObjective,
+                nodesPerSecond, om.buildTime / 1e6,
+                searchStart == 0 ? 0 : (propagation - searchStart) / 1e6,
+                searchStart == 0 ? 0 : (end - propagation) / 1e6,
+                exportTime / 1e6);
+    }
+
+    @Name("ordo.Search")
+    @Label("Ordo Search")
+    @Category("Ordo")
+    static class SearchEvent extends Event {
+        @Label("Nodes")
+        long nodes;
+        @Label("Fails")
+        long fails;
+        @Label("Solutions")
+        long solutions;
+    }
+
+    @Name("ordo.Solution")
+    @Label("Ordo Solution")
+    @Category("Ordo")
+    static class SolutionEvent extends Event {
+        @Label("Objective")
+        int objective; // 0 without criterion
+        @Label("Nodes")
+        long nodes;
+        @Label("Time (ms)")
+        double time; // since the start of the resolution
+    }
+}
@@ -0,0 +1,167 @@
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Neighborhoods of a Large Neighborhood Search on an {@link OrdoModel} : from the last solution, some tasks are
+ * relaxed and all the other ones are fixed on their start and engine. The relaxed tasks are, in turn :
+ * <ul>
+ * <li>the tasks intersecting a random time window</li>
+ * <li>a run of consecutive tasks of one engine, the most loaded one every other time</li>
+ * <li>the tasks of random FOs</li>
+ * </ul>
+ * The size of the neighborhoods, counted in tasks, grows when the search fails to improve the solution, and shrinks
+ * back slowly after each improvement. Once it reaches the number of tasks, all the tasks are relaxed : only such a
+ * neighborhood makes the search complete.
+ */
+public class OrdoNeighbor implements INeighbor {
+
+    private final OrdoModel om;
+    private final Random rnd;
+    private final int nbT;
+    private final int minSize;
+    private final int[] start; // start of each task in the last solution
+    private final int[] engine; // engine of each task in the last solution
+    private final boolean[] relaxed;
+    private int size; // number of tasks to relax
+    private boolean complete; // the last neighborhood relaxed all the tasks
+    private int nbCalls;
+
+    public OrdoNeighbor(OrdoModel om, long seed) {
+        this.om = om;
+        this.rnd = new Random(seed);
+        this.nbT = om.instance.nbT();
+        this.minSize = Math.min(nbT, Math.max(4, nbT / 20));
+        this.size = minSize;
+        this.start = new int[nbT];
+        this.engine = new int[nbT];
+        this.relaxed = new boolean[nbT];
+    }
+
+    @Override
+    public void recordSolution() {
+        for (int j = 0; j < nbT; j++) {
+            start[j] = om.s[j].getValue();
+            engine[j] = -1;
+            for (int k = 0; k < om.ex[j].length; k++) {
+                if (om.ex[j][k].isInstantiatedTo(1)) {
+                    engine[j] = om.engines[j][k];
+                }
+            }
+        }
+        size = Math.max(minSize, size - size / 10); // improvement, back to smaller neighborhoods
+    }
+
+    @Override
+    public void loadFromSolution(Solution solution) {
+        for (int j = 0; j < nbT; j++) {
+            start[j] = solution.getIntVal(om.s[j]);
+            engine[j] = om.engine(j, solution);
+        }
+    }
+
+    @Override
+    public void fixSomeVariables() throws ContradictionException {
+        complete = size >= nbT;
+        Arrays.fill(relaxed, complete);
+        if (!complete) {
+            switch (nbCalls++ % 3) {
+                case 0:
+                    relaxTimeWindow();
+                    break;
+                case 1:
+                    relaxEngine(nbCalls % 2 == 0 ? bottleneck() : om.engines[rnd.nextInt(nbT)][0]);
+                    break;
+                default:
+                    relaxOrders();
+            }
+        }
+        for (int j = 0; j < nbT; j++) {
+            if (!relaxed[j]) {
+                for (int k = 0; k < om.ex[j].length; k++) {
+                    om.ex[j][k].instantiateTo(om.engines[j][k] == engine[j] ? 1 : 0, Cause.Null);
+                }
+                om.s[j].instantiateTo(start[j], Cause.Null);
+            }
+        }
+    }
+
+    @Override
+    public void restrictLess() {
+        size = Math.min(nbT, size + size / 5 + 1); // no improvement, larger neighborhoods
+    }
+
+    @Override
+    public boolean isSearchComplete() {
+        return complete;
+    }
+
+    /**
+     * Relaxes the tasks intersecting a window holding about size tasks
+     */
+    private void relaxTimeWindow() {
+        int makespan = 1;
+        for (int j = 0; j < nbT; j++) {
+            makespan = Math.max(makespan, start[j] + om.instance.duration(j));
+        }
+        int width = (int) Math.max(1, (long) makespan * size / nbT);
+        int from = rnd.nextInt(Math.max(1, makespan - width + 1));
+        for (int j = 0; j < nbT; j++) {
+            relaxed[j] = start[j] < from + width && start[j] + om.instance.duration(j) > from;
+        }
+    }
+
+    /**
+     * Relaxes a run of at most size consecutive tasks on an engine
+     */
+    private void relaxEngine(int i) {
+        Integer[] tasks = new Integer[nbT];
+        int n = 0;
+        for (int j = 0; j < nbT; j++) {
+            if (engine[j] == i) {
+                tasks[n++] = j;
+            }
+        }
+        Arrays.sort(tasks, 0, n, (a, b) -> Integer.compare(start[a], start[b]));
+        int from = n > size ? rnd.nextInt(n - size + 1) : 0;
+        for (int t = from; t < Math.min(n, from + size); t++) {
+            relaxed[tasks[t]] = true;
+        }
+    }
+
+    /**
+     * Relaxes the tasks of size / 2 random FOs
+     */
+    private void relaxOrders() {
+        int nbO = om.instance.nbO();
+        for (int r = 0; r < Math.max(1, size / OrdoInstance.NB_TO); r++) {
+            int o = rnd.nextInt(nbO);
+            for (int p = 0; p < OrdoInstance.NB_TO; p++) {
+                relaxed[o * OrdoInstance.NB_TO + p] = true;
+            }
+        }
+    }
+
+    /**
+     * @return the engine with the largest load in the last solution
+     */
+    private int bottleneck() {
+        long[] load = new long[om.instance.nbR()];
+        for (int j = 0; j < nbT; j++) {
+            if (engine[j] >= 0) {
+                load[engine[j]] += om.instance.duration(j);
+            }
+        }
+        int best = 0;
+        for (int i = 1; i < load.length; i++) {
+            if (load[i] > load[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,147 @@
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+
+/**
+ * Optimization criteria of a schedule, all to be minimized.
+ * Each criterion is computed on the ends e of the last task of the fabrication orders.
+ */
+public enum OrdoObjective {
+
+    /**
+     * end of the last task
+     */
+    MAKESPAN {
+        @Override
+        IntVar post(OrdoModel om) {
+            Model model = om.model;
+            IntVar makespan = model.intVar("makespan", 0, om.instance.maxTime, true);
+            model.max(makespan, om.e).post();
+            return makespan;
+        }
+
+        @Override
+        int evaluate(OrdoSchedule schedule) {
+            return schedule.makespan();
+        }
+    },
+
+    /**
+     * sum of the delays of the FOs after their deadlines, the deadlines are no longer hard constraints
+     */
+    TARDINESS {
+        @Override
+        IntVar post(OrdoModel om) {
+            Model model = om.model;
+            int nbO = om.instance.nbO();
+            IntVar[] tardiness = new IntVar[nbO];
+            for (int k = 0; k < nbO; k++) {
+                int tk = Math.max(0, om.e[OrdoModel.last(k)].getUB() - om.instance.deadline[k]);
+                tardiness[k] = model.intVar("tardiness" + k, 0, tk, true);
+                // tardiness[k] = max(0, e - deadline), fixed as soon as the FO is scheduled
+                model.max(tardiness[k], model.intOffsetView(om.e[OrdoModel.last(k)], -om.instance.deadline[k]),
+                        model.intVar(0)).post();
+            }
+            int[] ones = new int[nbO];
+            Arrays.fill(ones, 1);
+            return scalar(model, "tardiness", tardiness, ones);
+        }
+
+        @Override
+        int evaluate(OrdoSchedule schedule) {
+            return schedule.tardiness();
+        }
+
+        @Override
+        boolean hardDeadlines() {
+            return false;
+        }
+    },
+
+    /**
+     * sum of the ends of the FOs, weighted by the quantity of each order
+     */
+    WEIGHTED_COMPLETION {
+        @Override
+        IntVar post(OrdoModel om) {
+            Model model = om.model;
+            int nbO = om.instance.nbO();
+            IntVar[] ends = new IntVar[nbO];
+            for (int k = 0; k < nbO; k++) {
+                ends[k] = om.e[OrdoModel.last(k)];
+            }
+            return scalar(model, "weightedCompletion", ends, om.instance.qty);
+        }
+
+        @Override
+        int evaluate(OrdoSchedule schedule) {
+            long completion = 0;
+            for (int k = 0; k < schedule.instance.nbO(); k++) {
+                completion += (long) schedule.instance.qty[k] * schedule.end[OrdoModel.last(k)];
+            }
+            return bound(completion);
+        }
+    };
+
+    /**
+     * number of terms of the partial sums of the criteria
+     */
+    static final int CHUNK = 64;
+
+    /**
+     * Posts the criterion in the model
+     *
+     * @return the variable to minimize
+     */
+    abstract IntVar post(OrdoModel om);
+
+    /**
+     * @return the value of the criterion for a schedule
+     */
+    abstract int evaluate(OrdoSchedule schedule);
+
+    /**
+     * Posts sum(coeffs[i] * vars[i]) on non negative variables by blocks of CHUNK terms, so that neither the total
+     * nor the partial sums overflow the int domains of the solver
+     *
+     * @return the variable equal to the sum
+     */
+    static IntVar scalar(Model model, String name, IntVar[] vars, int[] coeffs) {
+        int nbChunks = (vars.length + CHUNK - 1) / CHUNK;
+        IntVar[] partial = new IntVar[nbChunks];
+        long total = 0;
+        for (int c = 0; c < nbChunks; c++) {
+            int from = c * CHUNK;
+            int to = Math.min(vars.length, from + CHUNK);
+            long ub = 0;
+            for (int i = from; i < to; i++) {
+                ub += (long) coeffs[i] * vars[i].getUB();
+            }
+            total += ub;
+            partial[c] = model.intVar(name + "#" + c, 0, bound(ub), true);
+            model.scalar(Arrays.copyOfRange(vars, from, to), Arrays.copyOfRange(coeffs, from, to), "=", partial[c]).post();
+        }
+        if (nbChunks == 1) {
+            return partial[0];
+        }
+        IntVar sum = model.intVar(name, 0, bound(total), true);
+        model.sum(partial, "=", sum).post();
+        return sum;
+    }
+
+    /**
+     * @return the upper bound of a criterion, clamped to the int domains of the solver : on huge order books, the
+     * schedules whose value is beyond are out of reach
+     */
+    static int bound(long ub) {
+        return (int) Math.min(IntVar.MAX_INT_BOUND, ub);
+    }
+
+    /**
+     * @return true iff the FOs must end before their deadline
+     */
+    boolean hardDeadlines() {
+        return true;
+    }
+}
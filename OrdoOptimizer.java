@@ -0,0 +1,85 @@
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Anytime resolution of an {@link OrdoModel} : each improving solution is recorded, and the search stops when the
+ * optimum is proven or when one of the time, node or fail limits is reached.
+ * Without criterion in the model, the resolution stops at the first solution.
+ */
+public class OrdoOptimizer {
+
+    final OrdoModel om;
+    final List<Solution> solutions = new ArrayList<>(); // improving solutions, the best one is the last
+    final List<Integer> values = new ArrayList<>(); // objective value of each improving solution
+    final List<Long> times = new ArrayList<>(); // time (ms) at which each improving solution was found
+
+    public OrdoOptimizer(OrdoModel om) {
+        this.om = om;
+    }
+
+    public OrdoOptimizer limitTime(long ms) {
+        om.model.getSolver().limitTime(ms);
+        return this;
+    }
+
+    public OrdoOptimizer limitNode(long nodes) {
+        om.model.getSolver().limitNode(nodes);
+        return this;
+    }
+
+    public OrdoOptimizer limitFail(long fails) {
+        om.model.getSolver().limitFail(fails);
+        return this;
+    }
+
+    /**
+     * Stops the search as soon as the condition holds, e.g. on cancellation
+     */
+    public OrdoOptimizer stopWhen(BooleanSupplier condition) {
+        om.model.getSolver().addStopCriterion(condition::getAsBoolean);
+        return this;
+    }
+
+    /**
+     * Starts the resolution
+     *
+     * @return the best solution found within the limits, null if none
+     */
+    public Solution solve() {
+        Solver solver = om.model.getSolver();
+        long start = System.currentTimeMillis();
+        while (solver.solve()) {
+            solutions.add(new Solution(om.model).record());
+            times.add(System.currentTimeMillis() - start);
+            if (om.objective == null) {
+                values.add(0);
+                break;
+            }
+            values.add(om.objective.getValue());
+            if (OrdoLog.info()) {
+                System.out.println("solution #" + solutions.size() + " :: " + om.criterion + " = " + om.objective.getValue()
+                        + " (" + times.get(times.size() - 1) + " ms)");
+            }
+        }
+        return getBest();
+    }
+
+    /**
+     * @return the best solution found, null if none
+     */
+    public Solution getBest() {
+        return solutions.isEmpty() ? null : solutions.get(solutions.size() - 1);
+    }
+
+    /**
+     * @return true iff the best solution found is proven optimal (or the absence of solution is proven), never with
+     * a Large Neighborhood Search
+     */
+    public boolean isOptimal() {
+        return !om.lns && !om.model.getSolver().isStopCriterionMet() && (om.objective != null || solutions.isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+import org.chocosolver.solver.ParallelPortfolio;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+
+/**
+ * Races several copies of the model of an {@link OrdoInstance} on the available cores.
+ * <p>
+ * The copies mix the search strategies of {@link OrdoModel#setSearch(int, long)} : the first ones use the
+ * dom/wdeg, input order and min domain strategies, the next ones use dom/wdeg with different random seeds.
+ * Without criterion, the first solution found wins and the other copies are stopped.
+ * With a criterion, the copies share the bound of the objective and the best solution found wins.
+ */
+public class OrdoPortfolio {
+
+    final OrdoModel[] models;
+    private final ParallelPortfolio portfolio;
+    private OrdoModel best; // copy which found the solution
+    private Solution solution;
+    private int value; // objective value of the recorded solution
+
+    public OrdoPortfolio(OrdoInstance instance, int nbWorkers, long seed) {
+        this(instance, nbWorkers, seed, null);
+    }
+
+    /**
+     * @param criterion the criterion to minimize, null to look for any solution
+     */
+    public OrdoPortfolio(OrdoInstance instance, int nbWorkers, long seed, OrdoObjective criterion) {
+        models = new OrdoModel[nbWorkers];
+        portfolio = new ParallelPortfolio(false); // keep our own search strategies
+        for (int k = 0; k < nbWorkers; k++) {
+            OrdoModel om = new OrdoModel(instance, criterion);
+            OrdoPreprocessor.apply(om);
+            om.setSearch(strategy(k), seed + k);
+            om.model.getSolver().plugMonitor((IMonitorSolution) () -> onSolution(om));
+            portfolio.addModel(om.model);
+            models[k] = om;
+        }
+    }
+
+    /**
+     * @return the search strategy of the k-th copy : 3 (dom/wdeg), 1 (input order), 2 (min domain), then 3 again
+     */
+    static int strategy(int k) {
+        switch (k) {
+            case 1:
+                return 1;
+            case 2:
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+    /**
+     * Records the solution of a copy, called from the thread solving this copy
+     */
+    private synchronized void onSolution(OrdoModel om) {
+        if (solution == null || (om.objective != null && om.objective.getValue() < value)) {
+            solution = new Solution(om.model).record();
+            value = om.objective == null ? 0 : om.objective.getValue();
+            best = om;
+        }
+    }
+
+    /**
+     * Limits the resolution time of each copy
+     */
+    public OrdoPortfolio limitTime(long ms) {
+        for (OrdoModel om : models) {
+            om.model.getSolver().limitTime(ms);
+        }
+        return this;
+    }
+
+    /**
+     * @return true iff a solution has been found by one of the copies
+     */
+    public boolean solve() {
+        if (models[0].objective == null) {
+            portfolio.solve();
+        } else {
+            while (portfolio.solve()) {
+                if (OrdoLog.info()) {
+                    System.out.println("portfolio solution :: " + models[0].criterion + " = " + getValue());
+                }
+            }
+        }
+        return getSolution() != null;
+    }
+
+    /**
+     * @return true iff a copy was stopped by its limits, the absence of solution being then unproven
+     */
+    public boolean isStopCriterionMet() {
+        for (OrdoModel om : models) {
+            if (om.model.getSolver().isStopCriterionMet()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized OrdoModel getBest() {
+        return best;
+    }
+
+    public synchronized Solution getSolution() {
+        return solution;
+    }
+
+    public synchronized int getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,135 @@
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Fast necessary conditions of feasibility, checked in O(n log n) before building the model :
+ * <ul>
+ * <li>each FO fits between its head and its deadline (or the horizon)</li>
+ * <li>each engine, engines #1 and #2 together under q4, can process its tasks within their heads and tails even
+ * with preemption (earliest deadline first schedule)</li>
+ * <li>under q6, the 2 phase 1 engines have enough capacity for the phases 1 due before each deadline</li>
+ * </ul>
+ * When one of them fails, the instance has no solution.
+ */
+public class OrdoPrecheck {
+
+    private OrdoPrecheck() {
+    }
+
+    /**
+     * @param hardDeadlines whether the FOs must end before their deadline
+     * @return the reason why the instance has no solution, null if the checks pass
+     */
+    public static String check(OrdoInstance instance, boolean hardDeadlines) {
+        int nbT = instance.nbT();
+        int[] head = new int[nbT];
+        int[] tail = new int[nbT];
+        for (int j = 0; j < nbT; j++) {
+            head[j] = OrdoPreprocessor.head(instance, j);
+            tail[j] = OrdoPreprocessor.tail(instance, j, hardDeadlines);
+            if (head[j] + instance.duration(j) > tail[j]) {
+                return "FO " + j / OrdoInstance.NB_TO + " :: task " + j + " needs " + instance.duration(j) + " time units between "
+                        + head[j] + " and " + tail[j];
+            }
+        }
+
+        // tasks of each unary timeline, engine #2 merged into engine #1 under q4, and the optional tasks apart
+        int nbR = instance.nbR();
+        int[] count = new int[nbR + 1];
+        int[] timeline = new int[nbT];
+        int nbOptional = 0;
+        for (int j = 0; j < nbT; j++) {
+            int[] engines = instance.engines(j);
+            if (engines.length > 1) {
+                timeline[j] = -1;
+                nbOptional++;
+                continue;
+            }
+            timeline[j] = instance.timeline(engines[0]);
+            count[timeline[j] + 1]++;
+        }
+        for (int i = 0; i < nbR; i++) {
+            count[i + 1] += count[i];
+        }
+        int[] tasks = new int[nbT - nbOptional];
+        int[] pos = Arrays.copyOf(count, nbR);
+        int[] optional = new int[nbOptional];
+        for (int j = 0, o = 0; j < nbT; j++) {
+            if (timeline[j] < 0) {
+                optional[o++] = j;
+            } else {
+                tasks[pos[timeline[j]]++] = j;
+            }
+        }
+        for (int i = 0; i < nbR; i++) {
+            String reason = edf(instance, Arrays.copyOfRange(tasks, count[i], count[i + 1]), head, tail);
+            if (reason != null) {
+                return "engine-" + i + (instance.q4 && i == OrdoInstance.EXCL_E1 ? " and engine-" + OrdoInstance.EXCL_E2 : "")
+                        + " :: " + reason;
+            }
+        }
+        if (nbOptional > 0) {
+            return energy(instance, optional, tail, instance.engines(optional[0]).length);
+        }
+        return null;
+    }
+
+    /**
+     * Preemptive earliest deadline first schedule of tasks on a unary engine
+     *
+     * @return the task missing its tail, null if none
+     */
+    private static String edf(OrdoInstance instance, int[] tasks, int[] head, int[] tail) {
+        Integer[] byHead = new Integer[tasks.length];
+        for (int t = 0; t < tasks.length; t++) {
+            byHead[t] = tasks[t];
+        }
+        Arrays.sort(byHead, (a, b) -> Integer.compare(head[a], head[b]));
+        PriorityQueue<Integer> ready = new PriorityQueue<>((a, b) -> Integer.compare(tail[a], tail[b]));
+        int[] remaining = new int[instance.nbT()];
+        long time = 0;
+        int next = 0;
+        while (next < byHead.length || !ready.isEmpty()) {
+            if (ready.isEmpty()) {
+                time = Math.max(time, head[byHead[next]]);
+            }
+            while (next < byHead.length && head[byHead[next]] <= time) {
+                int j = byHead[next++];
+                remaining[j] = instance.duration(j);
+                ready.add(j);
+            }
+            int j = ready.peek();
+            long until = next < byHead.length ? Math.min(time + remaining[j], head[byHead[next]]) : time + remaining[j];
+            remaining[j] -= (int) (until - time);
+            time = until;
+            if (remaining[j] == 0) {
+                ready.poll();
+                if (time > tail[j]) {
+                    return "task " + j + " (FO " + j / OrdoInstance.NB_TO + ") ends at " + time + " at best, after " + tail[j]
+                            + ", with the tasks due before";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Energy of the optional tasks sharing m parallel engines : the tasks due before each tail must fit in m * tail
+     */
+    private static String energy(OrdoInstance instance, int[] tasks, int[] tail, int m) {
+        Integer[] byTail = new Integer[tasks.length];
+        for (int t = 0; t < tasks.length; t++) {
+            byTail[t] = tasks[t];
+        }
+        Arrays.sort(byTail, (a, b) -> Integer.compare(tail[a], tail[b]));
+        long load = 0;
+        for (int j : byTail) {
+            load += instance.duration(j);
+            if (load > (long) m * tail[j]) {
+                return "engines " + Arrays.toString(instance.engines(j)) + " :: the tasks due before " + tail[j]
+                        + " need " + load + " time units on " + m + " engines";
+            }
+        }
+        return null;
+    }
+}
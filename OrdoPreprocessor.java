@@ -0,0 +1,126 @@
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+
+/**
+ * Reasoning done before the search to reduce the search tree :
+ * <ul>
+ * <li>heads and tails of the tasks, used as initial domains of the starts and ends by {@link OrdoModel}</li>
+ * <li>symmetry breaking between identical orders</li>
+ * <li>redundant energy constraints on the engines</li>
+ * </ul>
+ */
+public class OrdoPreprocessor {
+
+    private OrdoPreprocessor() {
+    }
+
+    /**
+     * @return the earliest start of task j : a phase 2 cannot start before the end of its phase 1
+     */
+    static int head(OrdoInstance instance, int j) {
+        int head = 0;
+        for (int p = j % OrdoInstance.NB_TO; p > 0; p--) {
+            head += instance.duration(j - p);
+        }
+        return head;
+    }
+
+    /**
+     * @return the latest end of task j : the deadline (or the horizon) minus the durations of the next tasks of its FO
+     */
+    static int tail(OrdoInstance instance, int j, boolean hardDeadlines) {
+        int k = j / OrdoInstance.NB_TO;
+        int tail = hardDeadlines ? Math.min(instance.deadline[k], instance.maxTime) : instance.maxTime;
+        for (int next = j + 1; next <= OrdoModel.last(k); next++) {
+            tail -= instance.duration(next);
+        }
+        return tail;
+    }
+
+    /**
+     * Posts the symmetry breaking and energy constraints, valid as long as no task is pinned
+     */
+    public static void apply(OrdoModel om) {
+        breakSymmetries(om);
+        postEnergy(om);
+    }
+
+    /**
+     * Orders with the same product, quantity and deadline are interchangeable : each task of such an order starts
+     * no later than the same task of the next identical order (the phases 2 can be swapped to follow the phases 1)
+     */
+    public static void breakSymmetries(OrdoModel om) {
+        OrdoInstance instance = om.instance;
+        Integer[] orders = new Integer[instance.nbO()];
+        for (int k = 0; k < orders.length; k++) {
+            orders[k] = k;
+        }
+        Arrays.sort(orders, (a, b) -> {
+            int c = Integer.compare(instance.productType[a], instance.productType[b]);
+            c = c != 0 ? c : Integer.compare(instance.qty[a], instance.qty[b]);
+            c = c != 0 ? c : Integer.compare(instance.deadline[a], instance.deadline[b]);
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+        for (int i = 1; i < orders.length; i++) {
+            int a = orders[i - 1];
+            int b = orders[i];
+            if (instance.productType[a] == instance.productType[b] && instance.qty[a] == instance.qty[b]
+                    && instance.deadline[a] == instance.deadline[b]) {
+                for (int p = 0; p < OrdoInstance.NB_TO; p++) {
+                    int ja = a * OrdoInstance.NB_TO + p;
+                    int jb = b * OrdoInstance.NB_TO + p;
+                    om.model.arithm(om.s[ja], "<=", om.s[jb]).post();
+                }
+            }
+        }
+    }
+
+    /**
+     * An engine executes its tasks one at a time : the time between the first start and the last end of its tasks
+     * is at least the sum of their durations. Engines #1 and #2 are considered as a single one under q4.
+     * Engines with optional tasks are skipped.
+     */
+    public static void postEnergy(OrdoModel om) {
+        for (int i = 0; i < om.tasksR.length; i++) {
+            if (om.instance.timeline(i) != i) { // merged into the timeline of another engine
+                continue;
+            }
+            int[] tasks = om.tasksR[i];
+            for (int k = 0; k < om.tasksR.length; k++) {
+                if (k != i && om.instance.timeline(k) == i) {
+                    int[] other = om.tasksR[k];
+                    int n = tasks.length;
+                    tasks = Arrays.copyOf(tasks, n + other.length);
+                    System.arraycopy(other, 0, tasks, n, other.length);
+                }
+            }
+            postEnergy(om, tasks);
+        }
+    }
+
+    private static void postEnergy(OrdoModel om, int[] tasks) {
+        if (tasks.length < 2) {
+            return;
+        }
+        Model model = om.model;
+        IntVar[] starts = new IntVar[tasks.length];
+        IntVar[] ends = new IntVar[tasks.length];
+        int load = 0;
+        for (int t = 0; t < tasks.length; t++) {
+            int j = tasks[t];
+            if (om.engines[j].length > 1) {
+                return;
+            }
+            starts[t] = om.s[j];
+            ends[t] = om.e[j];
+            load += om.instance.duration(j);
+        }
+        IntVar first = model.intVar("first", 0, om.instance.maxTime, true);
+        IntVar last = model.intVar("last", 0, om.instance.maxTime, true);
+        model.min(first, starts).post();
+        model.max(last, ends).post();
+        model.arithm(last, "-", first, ">=", load).post();
+    }
+}
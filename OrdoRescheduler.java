@@ -0,0 +1,113 @@
+import org.chocosolver.solver.Solution;
+
+import java.util.Arrays;
+
+/**
+ * Rolling horizon rescheduling : re-solves only the open window of a previous schedule when orders arrive or are
+ * cancelled during the shift.
+ * <p>
+ * At time now, the FOs whose tasks are all ended are dropped, the tasks started before now are frozen on their
+ * start and engine, and the other tasks cannot start before now. The previous start and engine of the remaining
+ * tasks are used as a warm start of the search. The model thus only contains the open FOs, whatever the length of
+ * the orders history.
+ */
+public class OrdoRescheduler {
+
+    /**
+     * Result of a rescheduling
+     */
+    public static class Result {
+        final OrdoSchedule schedule; // null without solution
+        final int[] origin; // index of each order of the new instance in the previous one, -1 for the new orders
+
+        Result(OrdoSchedule schedule, int[] origin) {
+            this.schedule = schedule;
+            this.origin = origin;
+        }
+    }
+
+    private OrdoRescheduler() {
+    }
+
+    /**
+     * @param previous  the schedule in progress
+     * @param now       current time
+     * @param newOrders orders to add [productType, qty, deadline]
+     * @param cancelled indexes, in the previous instance, of the orders to cancel (only the ones not started yet are removed)
+     * @param criterion the criterion to minimize, null for the first solution
+     * @param timeLimit time limit of the resolution in ms, 0 for none
+     * @return the new schedule, whose instance is made of the open FOs followed by the new orders (null if none
+     * found), and the origin of these orders
+     * @throws IllegalArgumentException on a cancelled index out of the previous instance
+     */
+    public static Result reschedule(OrdoSchedule previous, int now, int[][] newOrders, int[] cancelled,
+                                          OrdoObjective criterion, long timeLimit) {
+        OrdoInstance prev = previous.instance;
+        int nbTO = OrdoInstance.NB_TO;
+        boolean[] drop = new boolean[prev.nbO()];
+        for (int k : cancelled) {
+            if (k < 0 || k >= prev.nbO()) {
+                throw new IllegalArgumentException("cancelled order " + k + " :: unknown, " + prev.nbO() + " orders");
+            }
+            drop[k] = previous.start[k * nbTO] >= now;
+        }
+        int nbKept = 0;
+        for (int k = 0; k < prev.nbO(); k++) {
+            drop[k] |= previous.end[OrdoModel.last(k)] <= now; // FO done
+            if (!drop[k]) {
+                nbKept++;
+            }
+        }
+
+        // open window instance : kept orders followed by the new ones
+        int[][] orderList = new int[nbKept + newOrders.length][];
+        int[] origin = new int[orderList.length]; // index of each order in the previous instance, -1 for new ones
+        int maxTime = prev.maxTime;
+        int work = now; // upper bound of the end of a serial schedule of the open tasks
+        int n = 0;
+        for (int k = 0; k < prev.nbO(); k++) {
+            if (!drop[k]) {
+                origin[n] = k;
+                orderList[n++] = new int[]{prev.productType[k], prev.qty[k], prev.deadline[k]};
+                work += prev.duration(k * nbTO) + prev.duration(k * nbTO + 1);
+            }
+        }
+        for (int[] order : newOrders) {
+            origin[n] = -1;
+            orderList[n++] = order;
+            work += prev.T[order[0]][0] * order[1] + prev.T[order[0]][1] * order[1];
+            maxTime = Math.max(maxTime, order[2]);
+        }
+        maxTime = Math.max(maxTime, work);
+        OrdoInstance instance = new OrdoInstance(prev.T, orderList, maxTime, prev.q4, prev.q6);
+
+        OrdoModel om = new OrdoModel(instance, criterion);
+        int[] startHint = new int[instance.nbT()];
+        int[] engineHint = new int[instance.nbT()];
+        Arrays.fill(startHint, -1);
+        Arrays.fill(engineHint, -1);
+        for (int o = 0; o < orderList.length; o++) {
+            for (int p = 0; p < nbTO; p++) {
+                int j = o * nbTO + p;
+                if (origin[o] >= 0) {
+                    int jPrev = origin[o] * nbTO + p;
+                    startHint[j] = previous.start[jPrev];
+                    engineHint[j] = previous.engine[jPrev];
+                    if (previous.start[jPrev] < now) {
+                        om.freeze(j, previous.start[jPrev], previous.engine[jPrev]);
+                        continue;
+                    }
+                }
+                om.release(j, now);
+            }
+        }
+        om.setSearch(startHint, engineHint);
+
+        OrdoOptimizer optimizer = new OrdoOptimizer(om);
+        if (timeLimit > 0) {
+            optimizer.limitTime(timeLimit);
+        }
+        Solution solution = optimizer.solve();
+        return new Result(solution == null ? null : OrdoSchedule.of(om, solution), origin);
+    }
+}
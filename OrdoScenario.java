@@ -0,0 +1,67 @@
+/**
+ * What-if variant of an instance : engine added for the phase 1 (q6), engines #1 / #2 exclusion toggled (q4),
+ * quantities scaled, deadlines shifted. The arrays of the base instance which are not modified are shared.
+ */
+public class OrdoScenario {
+
+    final String name;
+    Boolean q4; // null : as in the base instance
+    Boolean q6;
+    double qtyScale = 1;
+    int deadlineShift;
+
+    public OrdoScenario(String name) {
+        this.name = name;
+    }
+
+    public OrdoScenario q4(boolean q4) {
+        this.q4 = q4;
+        return this;
+    }
+
+    public OrdoScenario q6(boolean q6) {
+        this.q6 = q6;
+        return this;
+    }
+
+    public OrdoScenario scaleQty(double qtyScale) {
+        this.qtyScale = qtyScale;
+        return this;
+    }
+
+    public OrdoScenario shiftDeadlines(int deadlineShift) {
+        this.deadlineShift = deadlineShift;
+        return this;
+    }
+
+    /**
+     * @return the instance of this scenario, the horizon is extended by the deadlines shift and the additional load
+     */
+    public OrdoInstance apply(OrdoInstance base) {
+        int[] qty = base.qty;
+        if (qtyScale != 1) {
+            qty = new int[qty.length];
+            for (int k = 0; k < qty.length; k++) {
+                qty[k] = Math.max(1, (int) Math.round(base.qty[k] * qtyScale));
+            }
+        }
+        int[] deadline = base.deadline;
+        if (deadlineShift != 0) {
+            deadline = new int[deadline.length];
+            for (int k = 0; k < deadline.length; k++) {
+                deadline[k] = Math.max(0, base.deadline[k] + deadlineShift);
+            }
+        }
+        int maxTime = base.maxTime;
+        if (qty != base.qty || deadline != base.deadline) {
+            maxTime = Math.max(maxTime, OrdoLoader.horizon(base.T, base.productType, qty, deadline));
+        }
+        return new OrdoInstance(base.T, base.productType, qty, deadline, maxTime,
+                q4 == null ? base.q4 : q4, q6 == null ? base.q6 : q6);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
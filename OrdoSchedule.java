@@ -0,0 +1,121 @@
+import org.chocosolver.solver.Solution;
+
+import java.util.Arrays;
+
+/**
+ * Schedule of an {@link OrdoInstance}, independent of the Choco model which produced it :
+ * start, end and engine of each task.
+ */
+public class OrdoSchedule {
+
+    final OrdoInstance instance;
+    final int[] start;
+    final int[] end;
+    final int[] engine;
+
+    public OrdoSchedule(OrdoInstance instance, int[] start, int[] end, int[] engine) {
+        this.instance = instance;
+        this.start = start;
+        this.end = end;
+        this.engine = engine;
+    }
+
+    /**
+     * @return the schedule of a solution of the model om
+     */
+    public static OrdoSchedule of(OrdoModel om, Solution solution) {
+        int nbT = om.instance.nbT();
+        int[] start = new int[nbT];
+        int[] end = new int[nbT];
+        int[] engine = new int[nbT];
+        for (int j = 0; j < nbT; j++) {
+            start[j] = solution.getIntVal(om.s[j]);
+            end[j] = solution.getIntVal(om.e[j]);
+            engine[j] = om.engine(j, solution);
+        }
+        return new OrdoSchedule(om.instance, start, end, engine);
+    }
+
+    /**
+     * @return true iff the schedule satisfies all the constraints of its instance : engines eligibility, durations,
+     * horizon, order of the tasks of each FO, deadlines, one task at a time on each engine and the q4 exclusion
+     */
+    public boolean feasible() {
+        return feasible(true);
+    }
+
+    /**
+     * @param hardDeadlines whether the deadlines are checked
+     */
+    public boolean feasible(boolean hardDeadlines) {
+        int nbT = instance.nbT();
+        int nbR = instance.nbR();
+        int[] count = new int[nbR + 1];
+        for (int j = 0; j < nbT; j++) {
+            boolean eligible = false;
+            for (int i : instance.engines(j)) {
+                eligible |= i == engine[j];
+            }
+            if (!eligible || start[j] < 0 || end[j] != start[j] + instance.duration(j) || end[j] > instance.maxTime) {
+                return false;
+            }
+            if (j % OrdoInstance.NB_TO > 0 && end[j - 1] > start[j]) {
+                return false;
+            }
+            count[engine[j] + 1]++;
+        }
+        for (int k = 0; hardDeadlines && k < instance.nbO(); k++) {
+            if (end[OrdoModel.last(k)] > instance.deadline[k]) {
+                return false;
+            }
+        }
+        // tasks grouped by engine, engine #2 merged into engine #1 under q4, then sorted by start
+        int[] timeline = new int[nbR];
+        for (int i = 0; i < nbR; i++) {
+            timeline[i] = instance.timeline(i);
+        }
+        int[] from = new int[nbR + 1];
+        for (int i = 0; i < nbR; i++) {
+            from[timeline[i] + 1] += count[i + 1];
+        }
+        for (int i = 0; i < nbR; i++) {
+            from[i + 1] += from[i];
+        }
+        long[] byEngine = new long[nbT];
+        int[] pos = Arrays.copyOf(from, nbR);
+        for (int j = 0; j < nbT; j++) {
+            byEngine[pos[timeline[engine[j]]]++] = ((long) start[j] << 32) | j;
+        }
+        for (int i = 0; i < nbR; i++) {
+            Arrays.sort(byEngine, from[i], from[i + 1]);
+            for (int t = from[i] + 1; t < from[i + 1]; t++) {
+                if (end[(int) byEngine[t - 1]] > start[(int) byEngine[t]]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the end of the last task
+     */
+    public int makespan() {
+        int makespan = 0;
+        for (int t : end) {
+            makespan = Math.max(makespan, t);
+        }
+        return makespan;
+    }
+
+    /**
+     * @return the sum of the delays of the FOs after their deadlines, clamped as in the model
+     */
+    public int tardiness() {
+        long tardiness = 0;
+        for (int k = 0; k < instance.nbO(); k++) {
+            tardiness += Math.max(0, end[OrdoModel.last(k)] - instance.deadline[k]);
+        }
+        return OrdoObjective.bound(tardiness);
+    }
+}
@@ -0,0 +1,264 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.chocosolver.solver.Solution;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resident scheduling service, sharing one warm JVM between the planners.
+ * <p>
+ * Usage : OrdoService [port] [catalog] ; the catalog (CSV or JSON, see {@link OrdoLoader}) defaults to the products
+ * of {@link OrdoGenerator#DEFAULT_T}. Local HTTP endpoints :
+ * <ul>
+ * <li>POST /solve?criterion=MAKESPAN&amp;timeLimit=2000&amp;search=3&amp;q4=true&amp;q6=false&amp;format=json :
+ * the body is an order book (CSV or JSON), the response is the schedule (json or csv). The id of the request, to
+ * cancel it while it is running, is chosen by the client with the id parameter (&amp;id=..), else generated; it is
+ * given back in the X-Request-Id header</li>
+ * <li>POST /cancel?id=.. : stops the search of a running request, which returns its best schedule so far</li>
+ * </ul>
+ * The schedules proven optimal (or first solutions without criterion) are cached in the ordo-cache directory : a
+ * request for an order book already solved for the same criterion is answered without solving, with the header
+ * X-Schedule: cached; the schedules of searches stopped by the time limit or cancelled are not. The search of an order book whose
+ * deadlines or horizon differ from a cached one starts from the cached schedule when it is still feasible, with the
+ * header X-Warm-Start: cached.
+ * When the search is stopped without solution, the greedy schedule of {@link OrdoGreedy} is returned, with the
+ * header X-Schedule: greedy (or greedy-late when it misses deadlines).
+ * An order book failing the checks of {@link OrdoPrecheck} is rejected (422) without solving, as an order book proven
+ * without solution; with explain=true, the response gives a minimal set of conflicting orders ({@link OrdoExplainer}).
+ * The requests are handled by a pool of I/O threads, the searches run on a bounded pool of one thread per core :
+ * when all the solvers are busy and the queue is full, the request is rejected (503). Each search is limited by the
+ * time budget of its request.
+ */
+public class OrdoService {
+
+    static final int QUEUE = 64; // requests waiting for a solver
+    static final long MAX_TIME_LIMIT = 60000; // ms
+    static final long CACHE_SIZE = 64L << 20; // bytes
+
+    private final int[][] T;
+    private final OrdoCache cache; // null without cache
+    private final HttpServer server;
+    private final ExecutorService solvers;
+    private final Map<String, AtomicBoolean> running = new ConcurrentHashMap<>(); // cancellation flag of each request
+    private final AtomicLong ids = new AtomicLong();
+
+    /**
+     * @param cache cache of the schedules, null for none
+     */
+    public OrdoService(int port, int[][] T, OrdoCache cache) throws IOException {
+        this.T = T;
+        this.cache = cache;
+        int nbCores = Runtime.getRuntime().availableProcessors();
+        solvers = new ThreadPoolExecutor(nbCores, nbCores, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE));
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/solve", this::solve);
+        server.createContext("/cancel", this::cancel);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        solvers.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int[][] T = OrdoGenerator.DEFAULT_T;
+        if (args.length > 1) {
+            try (Reader in = Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+                T = OrdoLoader.readCatalog(in);
+            }
+        }
+        OrdoLog.level = OrdoLog.QUIET;
+        new OrdoService(port, T, new OrdoCache(new File("ordo-cache"), CACHE_SIZE)).start();
+        System.out.println("OrdoService listening on localhost:" + port);
+    }
+
+    private void solve(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                reply(exchange, 405, "POST an order book");
+                return;
+            }
+            Map<String, String> params = params(exchange);
+            OrdoInstance instance;
+            try (Reader in = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                instance = OrdoLoader.readOrders(T, in, Boolean.parseBoolean(params.getOrDefault("q4", "true")),
+                        Boolean.parseBoolean(params.getOrDefault("q6", "false")));
+            }
+            OrdoObjective criterion = params.containsKey("criterion") ? OrdoObjective.valueOf(params.get("criterion")) : null;
+            long timeLimit = Math.min(MAX_TIME_LIMIT, Long.parseLong(params.getOrDefault("timeLimit", "5000")));
+            int search = Integer.parseInt(params.getOrDefault("search", "3"));
+            OrdoExporter exporter = OrdoExporter.forFile("." + params.getOrDefault("format", "json"));
+            OrdoSchedule cached = cache == null ? null : cache.get(instance, criterion);
+            if (cached != null) {
+                exchange.getResponseHeaders().add("X-Schedule", "cached");
+                send(exchange, exporter, cached);
+                return;
+            }
+            boolean explain = Boolean.parseBoolean(params.getOrDefault("explain", "false"));
+            String infeasible = OrdoPrecheck.check(instance, criterion == null || criterion.hardDeadlines());
+            if (infeasible != null) {
+                reply(exchange, 422, "infeasible :: " + infeasible + (explain ? explain(instance, criterion, timeLimit) : ""));
+                return;
+            }
+
+            OrdoSchedule warm = cache == null ? null : cache.similar(instance, criterion);
+            if (warm != null) {
+                exchange.getResponseHeaders().add("X-Warm-Start", "cached");
+            }
+            OrdoSchedule fallback = OrdoGreedy.schedule(instance);
+            AtomicBoolean cancelled = new AtomicBoolean();
+            AtomicBoolean proven = new AtomicBoolean(); // the schedule is the first solution or proven optimal
+            String id = params.get("id");
+            if (id == null) {
+                do {
+                    id = Long.toString(ids.incrementAndGet());
+                } while (running.putIfAbsent(id, cancelled) != null);
+            } else if (running.putIfAbsent(id, cancelled) != null) {
+                reply(exchange, 409, "request " + id + " already running");
+                return;
+            }
+            exchange.getResponseHeaders().add("X-Request-Id", id);
+            long seed = ids.incrementAndGet();
+            try {
+                Future<OrdoSchedule> future = solvers.submit(() -> {
+                    OrdoModel om = new OrdoModel(instance, criterion);
+                    OrdoPreprocessor.apply(om);
+                    om.setSearch(search, seed);
+                    if (warm != null) {
+                        OrdoGreedy.seed(om, warm);
+                    }
+                    OrdoOptimizer optimizer = new OrdoOptimizer(om).limitTime(timeLimit).stopWhen(cancelled::get);
+                    Solution solution = optimizer.solve();
+                    if (solution != null) {
+                        proven.set(criterion == null || optimizer.isOptimal());
+                        return OrdoSchedule.of(om, solution);
+                    }
+                    return optimizer.isOptimal() ? null : fallback; // stopped without solution
+                });
+                OrdoSchedule schedule;
+                try {
+                    // the search stops by itself within its budget, the margin covers the waiting in the queue
+                    schedule = future.get(2 * timeLimit + 1000, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    cancelled.set(true);
+                    future.cancel(false);
+                    schedule = fallback;
+                }
+                if (schedule == null) {
+                    reply(exchange, 422, "no solution" + (explain ? explain(instance, criterion, timeLimit) : ""));
+                    return;
+                }
+                if (schedule == fallback) {
+                    exchange.getResponseHeaders().add("X-Schedule", fallback.feasible() ? "greedy" : "greedy-late");
+                } else if (cache != null && proven.get()) {
+                    cache.put(schedule, criterion);
+                }
+                send(exchange, exporter, schedule);
+            } finally {
+                running.remove(id);
+            }
+        } catch (RejectedExecutionException e) {
+            reply(exchange, 503, "all the solvers are busy");
+        } catch (IllegalArgumentException e) {
+            reply(exchange, 400, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reply(exchange, 503, "interrupted");
+        } catch (ExecutionException e) {
+            reply(exchange, 500, String.valueOf(e.getCause()));
+        }
+    }
+
+    private void cancel(HttpExchange exchange) throws IOException {
+        String id = params(exchange).get("id");
+        AtomicBoolean cancelled = id == null ? null : running.get(id);
+        if (cancelled == null) {
+            reply(exchange, 404, "unknown request");
+        } else {
+            cancelled.set(true);
+            reply(exchange, 200, "cancelled");
+        }
+    }
+
+    private static void send(HttpExchange exchange, OrdoExporter exporter, OrdoSchedule schedule) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        exporter.export(schedule, body);
+        exchange.sendResponseHeaders(200, body.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            body.writeTo(out);
+        }
+    }
+
+    private static Map<String, String> params(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                int eq = param.indexOf('=');
+                if (eq > 0) {
+                    params.put(param.substring(0, eq), URLDecoder.decode(param.substring(eq + 1), "UTF-8"));
+                }
+            }
+        }
+        return params;
+    }
+
+    /**
+     * @return the minimal conflict of an order book without solution, searched by a solver within the time limit, each
+     * check limited to a tenth of it
+     */
+    private String explain(OrdoInstance instance, OrdoObjective criterion, long timeLimit)
+            throws InterruptedException, ExecutionException {
+        OrdoExplainer explainer = new OrdoExplainer(instance, criterion).limitTime(Math.max(100, timeLimit / 10))
+                .limitTotalTime(timeLimit);
+        Future<int[]> future = solvers.submit(explainer::explain);
+        int[] conflict;
+        try {
+            conflict = future.get(2 * timeLimit + 1000, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            return "\nconflicting orders :: unknown within the time limit";
+        }
+        return "\nconflicting orders :: " + Arrays.toString(conflict)
+                + (explainer.isProven() ? "" : " (not proven minimal)");
+    }
+
+    private static void reply(HttpExchange exchange, int code, String message) throws IOException {
+        byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import org.chocosolver.solver.Solution;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Solves the scenarios of a base instance concurrently on a fork-join pool, one model per scenario, and compares
+ * their results.
+ */
+public class OrdoSweep {
+
+    /**
+     * Result of a scenario
+     */
+    public static class Result {
+        final OrdoScenario scenario;
+        final String status; // feasible, infeasible, or unknown when stopped by the time limit
+        final OrdoSchedule schedule; // null without solution
+        final long time; // ms
+
+        Result(OrdoScenario scenario, String status, OrdoSchedule schedule, long time) {
+            this.scenario = scenario;
+            this.status = status;
+            this.schedule = schedule;
+            this.time = time;
+        }
+    }
+
+    private OrdoSweep() {
+    }
+
+    /**
+     * @param criterion the criterion to minimize, null for the first solution
+     * @param timeLimit time limit of each resolution in ms
+     * @return the results, in the order of the scenarios
+     */
+    public static List<Result> solve(OrdoInstance base, List<OrdoScenario> scenarios, OrdoObjective criterion,
+                                     long timeLimit, long seed) throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            Result[] results = pool.submit(() -> scenarios.parallelStream()
+                    .map(scenario -> solve(base, scenario, criterion, timeLimit, seed))
+                    .toArray(Result[]::new)).get();
+            List<Result> list = new ArrayList<>(results.length);
+            for (Result r : results) {
+                list.add(r);
+            }
+            return list;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static Result solve(OrdoInstance base, OrdoScenario scenario, OrdoObjective criterion, long timeLimit, long seed) {
+        long start = System.currentTimeMillis();
+        OrdoInstance instance = scenario.apply(base);
+        if (OrdoPrecheck.check(instance, criterion == null || criterion.hardDeadlines()) != null) {
+            return new Result(scenario, "infeasible", null, System.currentTimeMillis() - start);
+        }
+        OrdoModel om = new OrdoModel(instance, criterion);
+        OrdoPreprocessor.apply(om);
+        om.setSearch(3, seed);
+        OrdoOptimizer optimizer = new OrdoOptimizer(om).limitTime(timeLimit);
+        Solution solution = optimizer.solve();
+        long time = System.currentTimeMillis() - start;
+        if (solution != null) {
+            return new Result(scenario, "feasible", OrdoSchedule.of(om, solution), time);
+        }
+        return new Result(scenario, optimizer.isOptimal() ? "infeasible" : "unknown", null, time);
+    }
+
+    /**
+     * Prints the comparison table of the results
+     */
+    public static void print(List<Result> results, PrintStream out) {
+        out.println("scenario\tstatus\tmakespan\ttardiness\ttime(ms)");
+        for (Result r : results) {
+            out.println(r.scenario + "\t" + r.status + "\t"
+                    + (r.schedule == null ? "-" : Integer.toString(r.schedule.makespan())) + "\t"
+                    + (r.schedule == null ? "-" : Integer.toString(r.schedule.tardiness())) + "\t" + r.time);
+        }
+    }
+
+    /**
+     * Sweeps the q4 / q6 variants, quantities scales and deadlines shifts of a random instance
+     * Usage : OrdoSweep [nbOrders] [timeLimit]
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int nbO = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        long timeLimit = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        OrdoLog.level = OrdoLog.QUIET;
+        OrdoInstance base = new OrdoGenerator().generate(nbO, 18081981);
+        List<OrdoScenario> scenarios = new ArrayList<>();
+        for (boolean q4 : new boolean[]{true, false}) {
+            for (boolean q6 : new boolean[]{false, true}) {
+                for (double scale : new double[]{0.5, 1, 1.5, 2}) {
+                    for (int shift : new int[]{-200, 0, 200, 500}) {
+                        scenarios.add(new OrdoScenario("q4=" + q4 + " q6=" + q6 + " qty*" + scale + " deadline+" + shift)
+                                .q4(q4).q6(q6).scaleQty(scale).shiftDeadlines(shift));
+                    }
+                }
+            }
+        }
+        print(solve(base, scenarios, OrdoObjective.MAKESPAN, timeLimit, 18081981), System.out);
+    }
+}
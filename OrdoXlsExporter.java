@@ -0,0 +1,111 @@
+import jxl.Workbook;
+import jxl.format.Colour;
+import jxl.format.ScriptStyle;
+import jxl.format.UnderlineStyle;
+import jxl.write.Label;
+import jxl.write.WritableCellFormat;
+import jxl.write.WritableFont;
+import jxl.write.WritableSheet;
+import jxl.write.WritableWorkbook;
+import jxl.write.WriteException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writes a schedule as an XLS Gantt chart : one row per engine, one column per time slot.
+ * <p>
+ * Each task is a single label merged over its time slots, and the cell formats are created once per workbook,
+ * so the export grows with the number of tasks. The time slots are widened to keep within the 256 columns of XLS :
+ * the tasks of an engine then sharing a column are written in a single label, e.g. "Task3+Task7".
+ */
+public class OrdoXlsExporter implements OrdoExporter {
+
+    public static final int DEFAULT_RESOLUTION = 10;
+    static final int MAX_COLUMNS = 255; // the first column holds the engines names
+
+    // background of the successive tasks, and whether their text is white
+    private static final Colour[] COLOURS = {Colour.BLUE, Colour.OLIVE_GREEN, Colour.PALE_BLUE, Colour.BLUE_GREY,
+            Colour.AQUA, Colour.BROWN, Colour.CORAL, Colour.DARK_BLUE, Colour.DARK_GREEN, Colour.LIGHT_BLUE,
+            Colour.LIGHT_GREEN, Colour.OCEAN_BLUE, Colour.YELLOW};
+    private static final boolean[] WHITE_TEXT = {true, true, false, true, false, true, true, true, true, false, false,
+            true, true};
+
+    final int resolution; // time units per column
+
+    public OrdoXlsExporter(int resolution) {
+        this.resolution = resolution;
+    }
+
+    @Override
+    public void export(OrdoSchedule schedule, OutputStream out) throws IOException {
+        WritableWorkbook workbook = Workbook.createWorkbook(out);
+        try {
+            write(schedule, workbook.createSheet("OrdoResultat", 0));
+            workbook.write();
+        } catch (WriteException e) {
+            throw new IOException(e);
+        } finally {
+            try {
+                workbook.close();
+            } catch (WriteException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private void write(OrdoSchedule schedule, WritableSheet sheet) throws WriteException {
+        int makespan = schedule.makespan();
+        int slot = Math.max(Math.max(1, resolution), (makespan + MAX_COLUMNS - 1) / MAX_COLUMNS);
+        int nbSlots = (makespan + slot - 1) / slot;
+
+        /* creating formats, shared by all the cells */
+        WritableFont font = new WritableFont(WritableFont.ARIAL, 11, WritableFont.NO_BOLD, false, UnderlineStyle.NO_UNDERLINE, Colour.BLACK, ScriptStyle.NORMAL_SCRIPT);
+        WritableFont font2 = new WritableFont(WritableFont.ARIAL, 11, WritableFont.NO_BOLD, false, UnderlineStyle.NO_UNDERLINE, Colour.WHITE, ScriptStyle.NORMAL_SCRIPT);
+        WritableCellFormat format = new WritableCellFormat(font);
+        WritableCellFormat[] formats = new WritableCellFormat[COLOURS.length];
+        for (int c = 0; c < COLOURS.length; c++) {
+            formats[c] = new WritableCellFormat(WHITE_TEXT[c] ? font2 : font);
+            formats[c].setBackground(COLOURS[c]);
+        }
+
+        /* Creating text data */
+        sheet.addCell(new Label(0, 0, "Time slots", format));
+        for (int i = 0; i < nbSlots; i++) {
+            sheet.addCell(new Label(i + 1, 0, "[" + i * slot + "," + (i + 1) * slot + "]", format));
+        }
+        int nbR = schedule.instance.nbR();
+        for (int i = 0; i < nbR; i++) {
+            sheet.addCell(new Label(0, i + 1, "Engine-" + i, format));
+        }
+
+        /* one label per task, merged over its time slots ; the tasks of an engine sharing a column share a label */
+        Integer[] order = new Integer[schedule.start.length];
+        for (int j = 0; j < order.length; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> schedule.engine[a] != schedule.engine[b]
+                ? Integer.compare(schedule.engine[a], schedule.engine[b])
+                : Integer.compare(schedule.start[a], schedule.start[b]));
+        int[] colour = new int[nbR];
+        StringBuilder text = new StringBuilder();
+        for (int t = 0; t < order.length; ) {
+            int j = order[t];
+            int i = schedule.engine[j];
+            int colStart = schedule.start[j] / slot + 1;
+            int colEnd = Math.max(colStart, schedule.end[j] / slot); // last column fully covered
+            text.setLength(0);
+            text.append("Task").append(j);
+            for (t++; t < order.length && schedule.engine[order[t]] == i
+                    && schedule.start[order[t]] / slot + 1 <= colEnd; t++) {
+                text.append('+').append("Task").append(order[t]);
+                colEnd = Math.max(colEnd, schedule.end[order[t]] / slot);
+            }
+            sheet.addCell(new Label(colStart, i + 1, text.toString(), formats[colour[i]++ % formats.length]));
+            if (colEnd > colStart) {
+                sheet.mergeCells(colStart, i + 1, colEnd, i + 1);
+            }
+        }
+    }
+}